@@ -1,8 +1,9 @@
 import java.util.*;
 import java.io.*;
 import java.awt.Point;
+import java.nio.file.Paths;
 
-public class AIPlayer {
+public class AIPlayer implements SnakePolicy {
 
     // --- Q-learning Constants ---
     private static final double ALPHA = 0.1; // Learning rate
@@ -17,14 +18,62 @@ public class AIPlayer {
 
     // --- Other Fields ---
     private Random random;
-    private static final String Q_TABLE_FILE = "q_table.dat";
+    public static final String DEFAULT_FILE_STEM = "q"; // q_table.dat, q_table.base, q_table.log, q_policy.dat
 
+    // --- Persistence Files (derived from a file stem, so independent players never share files) ---
+    private String qTableFile;
+    private String qBaseFile;
+    private String qLogFile;
+    private String policyFile;
+
+    // Set when incremental checkpoints are enabled: saves append only changed entries to an update log
+    private QUpdateLog updateLog;
+
+    /**
+     * Uses incremental checkpoints if the system property "snake.incrementalCheckpoints" is true.
+     */
     public AIPlayer() {
-        this.qTable = new HashMap<>();
-        this.random = new Random();
+        this(Boolean.getBoolean("snake.incrementalCheckpoints"));
+    }
+
+    /**
+     * @param incrementalCheckpoints True to persist the Q-table as a base snapshot plus an append-only update log
+     *                               (q_table.base / q_table.log) instead of rewriting q_table.dat on every save.
+     */
+    public AIPlayer(boolean incrementalCheckpoints) {
+        this(DEFAULT_FILE_STEM, incrementalCheckpoints);
+    }
+
+    /**
+     * @param fileStem Prefix of the files this player loads and saves: {stem}_table.dat, {stem}_table.base,
+     *                 {stem}_table.log and {stem}_policy.dat.
+     * @param incrementalCheckpoints See AIPlayer(boolean).
+     */
+    public AIPlayer(String fileStem, boolean incrementalCheckpoints) {
+        this(new Random(), fileStem);
+        if (incrementalCheckpoints) {
+            this.updateLog = new QUpdateLog(Paths.get(qBaseFile), Paths.get(qLogFile));
+        }
         loadQTable(); // Load Q-table from file if it exists
     }
 
+    private AIPlayer(Random random, String fileStem) {
+        this.qTable = new HashMap<>();
+        this.random = random;
+        this.qTableFile = fileStem + "_table.dat";
+        this.qBaseFile = fileStem + "_table.base";
+        this.qLogFile = fileStem + "_table.log";
+        this.policyFile = fileStem + "_policy.dat";
+    }
+
+    /**
+     * Creates a player with an empty Q-table and seeded exploration that never reads the saved table.
+     * For reproducible headless runs such as benchmarks.
+     */
+    public static AIPlayer untrained(long seed) {
+        return new AIPlayer(new Random(seed), DEFAULT_FILE_STEM);
+    }
+
     // --- State Calculation ---
 
     /**
@@ -40,7 +89,6 @@ public class AIPlayer {
         Point head = snake.getHead();
         Point foodPos = food.getPosition();
         char currentDirection = snake.getDirection();
-        List<Point> snakeBody = snake.getBody();
 
         if (head == null || foodPos == null) {
             // This case should ideally not be reached if game is active.
@@ -59,9 +107,9 @@ public class AIPlayer {
         Point pointLeft = getRelativePoint(head, currentDirection, -1);   // -1 for left turn
         Point pointRight = getRelativePoint(head, currentDirection, 1);    // 1 for right turn
 
-        boolean obsStraight = isObstacleAt(pointStraight, snakeBody, boardWidth, boardHeight);
-        boolean obsLeft = isObstacleAt(pointLeft, snakeBody, boardWidth, boardHeight);
-        boolean obsRight = isObstacleAt(pointRight, snakeBody, boardWidth, boardHeight);
+        boolean obsStraight = isObstacleAt(pointStraight, snake, boardWidth, boardHeight);
+        boolean obsLeft = isObstacleAt(pointLeft, snake, boardWidth, boardHeight);
+        boolean obsRight = isObstacleAt(pointRight, snake, boardWidth, boardHeight);
         
         return new State(foodDeltaXSign, foodDeltaYSign, obsLeft, obsStraight, obsRight, currentDirection);
     }
@@ -106,12 +154,12 @@ public class AIPlayer {
     /**
      * Helper to check if a given point is an obstacle (wall or snake's own body).
      * @param p The point to check.
-     * @param snakeBody The list of points representing the snake's body.
+     * @param snake The snake whose body counts as an obstacle.
      * @param boardWidth Board width in game units.
      * @param boardHeight Board height in game units.
      * @return True if the point is an obstacle, false otherwise.
      */
-    private boolean isObstacleAt(Point p, List<Point> snakeBody, int boardWidth, int boardHeight) {
+    private boolean isObstacleAt(Point p, Snake snake, int boardWidth, int boardHeight) {
         // Check wall collision
         if (p.x < 0 || p.x >= boardWidth || p.y < 0 || p.y >= boardHeight) {
             return true;
@@ -120,12 +168,7 @@ public class AIPlayer {
         // An AI might want to know if the target square *will be* occupied.
         // For this state representation, checking current body is standard.
         // The snake's actual move logic handles not dying to its departing tail.
-        for (Point segment : snakeBody) {
-            if (p.equals(segment)) {
-                return true;
-            }
-        }
-        return false;
+        return snake.isOccupied(p.x, p.y);
     }
 
     // --- Action Selection ---
@@ -137,13 +180,18 @@ public class AIPlayer {
      * @return The chosen action (0, 1, or 2).
      */
     public int chooseAction(State state, boolean isTraining) {
-        qTable.putIfAbsent(state, new double[3]); // Ensure Q-values exist for this state
+        if (isTraining) {
+            qTable.putIfAbsent(state, new double[3]); // Ensure Q-values exist for this state
+        }
 
         if (isTraining && random.nextDouble() < epsilon) {
             return random.nextInt(3); // Explore: choose a random action
         } else {
-            // Exploit: choose the action with the highest Q-value
+            // Exploit: choose the action with the highest Q-value (read-only: unseen states act as all-zero)
             double[] qValues = qTable.get(state);
+            if (qValues == null) {
+                return 0;
+            }
             int bestAction = 0;
             for (int i = 1; i < qValues.length; i++) {
                 if (qValues[i] > qValues[bestAction]) {
@@ -154,6 +202,14 @@ public class AIPlayer {
         }
     }
 
+    /**
+     * Greedy policy view of the Q-table, used when the player is driven like any other SnakePolicy.
+     */
+    @Override
+    public int chooseAction(Snake snake, Food food, int boardWidth, int boardHeight) {
+        return chooseAction(getCurrentState(snake, food, boardWidth, boardHeight), false);
+    }
+
     // --- Q-Value Update ---
     /**
      * Updates the Q-value for a given state-action pair.
@@ -178,6 +234,33 @@ public class AIPlayer {
         // Q-learning formula
         double newQValue = oldQValue + ALPHA * (reward + GAMMA * nextMaxQ - oldQValue);
         qTable.get(state)[action] = newQValue;
+        if (updateLog != null) {
+            updateLog.markDirty(state, action);
+        }
+    }
+
+    // --- Headless Training ---
+    /**
+     * Plays one epsilon-greedy training game on a headless board, updating Q-values after every step.
+     * Uses the same state, action and reward flow as GamePanel's TRAIN_AI loop. Epsilon is not decayed here.
+     * @param game The game to play; it is reset first.
+     * @param maxStepsWithoutFood Ends the episode once the snake goes this long without eating (guards against loops).
+     * @return The episode's score.
+     */
+    public int trainEpisode(HeadlessGame game, long maxStepsWithoutFood) {
+        game.reset();
+        int boardWidth = game.getBoardWidth();
+        int boardHeight = game.getBoardHeight();
+        State state = getCurrentState(game.getSnake(), game.getFood(), boardWidth, boardHeight);
+        while (game.isRunning() && game.getStepsSinceFood() < maxStepsWithoutFood) {
+            int action = chooseAction(state, true);
+            double reward = game.step(action);
+            boolean gameOver = !game.isRunning();
+            State nextState = gameOver ? null : getCurrentState(game.getSnake(), game.getFood(), boardWidth, boardHeight);
+            updateQValue(state, action, reward, nextState, gameOver);
+            state = nextState;
+        }
+        return game.getScore();
     }
 
     // --- Epsilon Management ---
@@ -194,15 +277,44 @@ public class AIPlayer {
     }
 
 
+    // --- Frozen Policy Export ---
+
+    /**
+     * Compiles the current Q-table into an immutable greedy policy for read-only inference.
+     */
+    public FrozenPolicy freeze() {
+        return FrozenPolicy.compile(qTable, 1); // Unseen, fully blocked states: go straight
+    }
+
+    public void exportPolicy() {
+        try {
+            freeze().save(policyFile);
+            System.out.println("Frozen policy exported to " + policyFile + ".");
+        } catch (IOException e) {
+            System.err.println("Error exporting frozen policy: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     // --- Persistence ---
     @SuppressWarnings("unchecked")
     public void loadQTable() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(Q_TABLE_FILE))) {
+        if (updateLog != null && updateLog.exists()) {
+            try {
+                qTable = updateLog.load();
+                System.out.println("Q-table loaded from " + qBaseFile + " and " + qLogFile + ". Loaded " + qTable.size() + " states.");
+                return;
+            } catch (IOException e) {
+                System.err.println("Error loading incremental Q-table: " + e.getMessage() + ". Falling back to " + qTableFile + ".");
+            }
+        }
+        // Full snapshot; with incremental checkpoints enabled it seeds the first base snapshot
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(qTableFile))) {
             qTable = (Map<State, double[]>) ois.readObject();
-            System.out.println("Q-table loaded successfully from " + Q_TABLE_FILE);
+            System.out.println("Q-table loaded successfully from " + qTableFile);
             System.out.println("Loaded " + qTable.size() + " states.");
         } catch (FileNotFoundException e) {
-            System.out.println("No Q-table file found (" + Q_TABLE_FILE + "). Starting with a new table.");
+            System.out.println("No Q-table file found (" + qTableFile + "). Starting with a new table.");
             qTable = new HashMap<>();
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error loading Q-table: " + e.getMessage());
@@ -212,9 +324,20 @@ public class AIPlayer {
     }
 
     public void saveQTable() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(Q_TABLE_FILE))) {
+        if (updateLog != null) {
+            try {
+                int changed = updateLog.getDirtyCount();
+                updateLog.checkpoint(qTable);
+                System.out.println("Q-table checkpoint written (" + changed + " changed entries, " + qTable.size() + " states).");
+            } catch (IOException e) {
+                System.err.println("Error writing Q-table checkpoint: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(qTableFile))) {
             oos.writeObject(qTable);
-            System.out.println("Q-table saved successfully to " + Q_TABLE_FILE + ". Saved " + qTable.size() + " states.");
+            System.out.println("Q-table saved successfully to " + qTableFile + ". Saved " + qTable.size() + " states.");
         } catch (IOException e) {
             System.err.println("Error saving Q-table: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,344 @@
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Multi-snake arena: many policy-driven snakes and food items on one shared board.
+ *
+ * All snakes register their segments in a single OccupancyGrid, and food is indexed by cell,
+ * so collisions and eating are resolved with constant-time lookups instead of pairwise body scans.
+ *
+ * Each snake steers towards its nearest food item, found through a coarse bucket grid over the food
+ * (about one item per bucket) searched ring by ring outwards from the head, instead of scanning every item.
+ *
+ * Each tick runs in three phases:
+ * 1. Decide (parallel): the snakes are split into contiguous partitions, one per worker thread.
+ *    Each partition has its own policy instance, so policies with scratch buffers (e.g. PlannerPlayer)
+ *    are never used by two threads at once. The board is read-only during this phase.
+ * 2. Move (sequential): every live snake moves. Segment counts are order-independent, so moves are simultaneous.
+ * 3. Resolve (sequential): a head on a cell covered more than once collided (with a body or another head,
+ *    in which case both die). Dead snakes are removed from the board and respawn on a later tick.
+ */
+public class Arena implements AutoCloseable {
+
+    private static final int MAX_SPAWN_ATTEMPTS = 100;
+    private static final int MIN_BUCKET_SIZE = 4;
+
+    private final int boardWidth;
+    private final int boardHeight;
+    private final int initialLength;
+    private final OccupancyGrid occupancy;
+    private final Random random;
+
+    // --- Snakes ---
+    private final Snake[] snakes;
+    private final boolean[] alive;
+    private final boolean[] diedThisTick;
+    private final int[] scores;
+    private final int[] actions;
+
+    // --- Food ---
+    private final Food[] foods;
+    private final int[] foodAt; // Index + 1 of the food on each cell (y * boardWidth + x), 0 if none
+    private final boolean[] foodPlaced; // False while a food item waits for a free cell
+    private final Food noFood; // Handed to policies when there is no food on the board
+
+    // --- Food Buckets (placed food only; intrusive doubly linked lists of food indices, + 1, 0 = none) ---
+    private final int bucketSize;
+    private final int bucketColumns;
+    private final int bucketRows;
+    private final int[] bucketFirst;
+    private final int[] bucketNext;
+    private final int[] bucketPrevious;
+
+    // --- Parallel Decision Phase ---
+    private final ExecutorService executor;
+    private final List<Callable<Void>> decisionTasks = new ArrayList<>();
+
+    // --- Stats ---
+    private long tick = 0;
+    private long deaths = 0;
+    private long foodEaten = 0;
+
+    /**
+     * @param config Board dimensions and the length new snakes spawn with.
+     * @param snakeCount Number of snakes.
+     * @param foodCount Number of food items kept on the board.
+     * @param policyFactory Creates one policy per decision partition.
+     * @param threads Number of decision partitions (and worker threads); 1 runs everything on the caller's thread.
+     * @param seed Seed for spawn positions. A seeded arena only replays exactly if its policies are deterministic too,
+     *             e.g. PlannerPlayer bounded by expansions only; the default PlannerPlayer also stops on elapsed time.
+     */
+    public Arena(BoardConfig config, int snakeCount, int foodCount, Supplier<SnakePolicy> policyFactory, int threads, long seed) {
+        this.boardWidth = config.width();
+        this.boardHeight = config.height();
+        this.initialLength = config.initialLength();
+        this.occupancy = new OccupancyGrid(boardWidth, boardHeight);
+        this.random = new Random(seed);
+
+        this.snakes = new Snake[snakeCount];
+        this.alive = new boolean[snakeCount];
+        this.diedThisTick = new boolean[snakeCount];
+        this.scores = new int[snakeCount];
+        this.actions = new int[snakeCount];
+        this.foodAt = new int[boardWidth * boardHeight]; // Allocated before the snakes spawn, which check it
+        for (int i = 0; i < snakeCount; i++) {
+            snakes[i] = new Snake(0, 0, 0, 'R', occupancy); // Placed by respawn()
+            respawn(i);
+        }
+
+        this.foods = new Food[foodCount];
+        this.foodPlaced = new boolean[foodCount];
+        this.noFood = new Food(boardWidth, boardHeight);
+        this.bucketSize = Math.max(MIN_BUCKET_SIZE, (int) Math.ceil(Math.sqrt((double) boardWidth * boardHeight / Math.max(1, foodCount))));
+        this.bucketColumns = (boardWidth + bucketSize - 1) / bucketSize;
+        this.bucketRows = (boardHeight + bucketSize - 1) / bucketSize;
+        this.bucketFirst = new int[bucketColumns * bucketRows];
+        this.bucketNext = new int[foodCount];
+        this.bucketPrevious = new int[foodCount];
+        for (int i = 0; i < foodCount; i++) {
+            foods[i] = new Food(boardWidth, boardHeight, random);
+            spawnFood(i);
+        }
+
+        int partitions = Math.max(1, Math.min(threads, snakeCount));
+        for (int p = 0; p < partitions; p++) {
+            int from = (int) ((long) snakeCount * p / partitions);
+            int to = (int) ((long) snakeCount * (p + 1) / partitions);
+            SnakePolicy policy = policyFactory.get();
+            decisionTasks.add(() -> {
+                decide(policy, from, to);
+                return null;
+            });
+        }
+        this.executor = partitions > 1 ? Executors.newFixedThreadPool(partitions, r -> {
+            Thread t = new Thread(r, "arena-decide");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    // --- Simulation ---
+
+    public void tick() {
+        for (int i = 0; i < snakes.length; i++) {
+            if (!alive[i]) respawn(i);
+        }
+        for (int i = 0; i < foods.length; i++) {
+            if (!foodPlaced[i]) spawnFood(i);
+        }
+
+        runDecisionPhase();
+
+        for (int i = 0; i < snakes.length; i++) {
+            if (alive[i]) {
+                Snake snake = snakes[i];
+                snake.setDirection(Snake.relativeToAbsolute(snake.getDirection(), actions[i]));
+                snake.move();
+            }
+        }
+
+        // Detect every collision before removing anyone, so head-to-head collisions kill both snakes
+        for (int i = 0; i < snakes.length; i++) {
+            diedThisTick[i] = alive[i] && (snakes[i].checkCollisionWithWall() || snakes[i].checkCollisionWithSelf());
+        }
+        for (int i = 0; i < snakes.length; i++) {
+            if (diedThisTick[i]) {
+                snakes[i].clear();
+                alive[i] = false;
+                deaths++;
+            } else if (alive[i]) {
+                Point head = snakes[i].getHead();
+                int food = foodAt[head.y * boardWidth + head.x];
+                if (food > 0) {
+                    snakes[i].grow();
+                    scores[i]++;
+                    foodEaten++;
+                    removeFood(food - 1);
+                    spawnFood(food - 1);
+                }
+            }
+        }
+        tick++;
+    }
+
+    private void runDecisionPhase() {
+        if (executor == null) {
+            for (Callable<Void> task : decisionTasks) {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Decision phase failed", e);
+                }
+            }
+            return;
+        }
+        try {
+            for (var future : executor.invokeAll(decisionTasks)) {
+                future.get(); // Rethrows policy failures; also orders the workers' writes to actions[] before the move phase
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during decision phase", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Decision phase failed", e.getCause());
+        }
+    }
+
+    private void decide(SnakePolicy policy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (alive[i]) {
+                Snake snake = snakes[i];
+                actions[i] = policy.chooseAction(snake, nearestFood(snake.getHead()), boardWidth, boardHeight);
+            }
+        }
+    }
+
+    /**
+     * Nearest placed food by Manhattan distance (lowest index on ties). Searches bucket rings outwards from
+     * the head's bucket and stops once no bucket further out can hold anything closer.
+     */
+    private Food nearestFood(Point head) {
+        int headColumn = head.x / bucketSize;
+        int headRow = head.y / bucketSize;
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        int maxRing = Math.max(bucketColumns, bucketRows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell in ring r is at least (r - 1) * bucketSize + 1 cells away along one axis
+            if (ring > 0 && bestDistance < (ring - 1) * bucketSize + 1) break;
+            for (int column = headColumn - ring; column <= headColumn + ring; column++) {
+                boolean edgeColumn = column == headColumn - ring || column == headColumn + ring;
+                int rowStep = edgeColumn ? 1 : Math.max(1, 2 * ring);
+                for (int row = headRow - ring; row <= headRow + ring; row += rowStep) {
+                    if (column < 0 || column >= bucketColumns || row < 0 || row >= bucketRows) continue;
+                    for (int food = bucketFirst[row * bucketColumns + column]; food != 0; food = bucketNext[food - 1]) {
+                        Point p = foods[food - 1].getPosition();
+                        int distance = Math.abs(p.x - head.x) + Math.abs(p.y - head.y);
+                        if (distance < bestDistance || (distance == bestDistance && food - 1 < best)) {
+                            bestDistance = distance;
+                            best = food - 1;
+                        }
+                    }
+                }
+            }
+        }
+        return best < 0 ? noFood : foods[best];
+    }
+
+    // --- Spawning ---
+
+    /**
+     * Places a snake on a random free horizontal run of cells, heading right. Leaves it dead if no spot is found,
+     * in which case it will try again next tick.
+     */
+    private void respawn(int index) {
+        for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS; attempt++) {
+            int headX = initialLength - 1 + random.nextInt(boardWidth - initialLength + 1);
+            int headY = random.nextInt(boardHeight);
+            if (isRunFree(headX, headY)) {
+                snakes[index].reset(headX, headY, initialLength, 'R');
+                alive[index] = true;
+                scores[index] = 0;
+                return;
+            }
+        }
+    }
+
+    private boolean isRunFree(int headX, int headY) {
+        // The body plus the cell in front of the head, so a snake never spawns facing straight into another;
+        // food cells count as taken too, so a spawning snake never covers (and silently eats) food
+        for (int x = headX - initialLength + 1; x <= headX + 1 && x < boardWidth; x++) {
+            if (occupancy.isOccupied(x, headY) || foodAt[headY * boardWidth + x] != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Places a food item on a random cell free of snakes and other food. If none is found,
+     * the item stays off the board and is retried next tick.
+     */
+    private void spawnFood(int index) {
+        Food food = foods[index];
+        for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS; attempt++) {
+            food.spawn(occupancy);
+            Point p = food.getPosition();
+            if (p == null) return; // Board full
+            if (foodAt[p.y * boardWidth + p.x] == 0) {
+                placeFood(index, p);
+                return;
+            }
+        }
+    }
+
+    private void placeFood(int index, Point p) {
+        foodAt[p.y * boardWidth + p.x] = index + 1;
+        foodPlaced[index] = true;
+        int bucket = (p.y / bucketSize) * bucketColumns + p.x / bucketSize;
+        int first = bucketFirst[bucket];
+        bucketNext[index] = first;
+        bucketPrevious[index] = 0;
+        if (first != 0) bucketPrevious[first - 1] = index + 1;
+        bucketFirst[bucket] = index + 1;
+    }
+
+    private void removeFood(int index) {
+        Point p = foods[index].getPosition();
+        foodAt[p.y * boardWidth + p.x] = 0;
+        foodPlaced[index] = false;
+        int next = bucketNext[index];
+        int previous = bucketPrevious[index];
+        if (previous != 0) {
+            bucketNext[previous - 1] = next;
+        } else {
+            bucketFirst[(p.y / bucketSize) * bucketColumns + p.x / bucketSize] = next;
+        }
+        if (next != 0) bucketPrevious[next - 1] = previous;
+    }
+
+    public boolean isFoodPlaced(int index) {
+        return foodPlaced[index];
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // --- Accessors ---
+
+    public int getSnakeCount() { return snakes.length; }
+    public Snake getSnake(int index) { return snakes[index]; }
+    public boolean isAlive(int index) { return alive[index]; }
+    public int getScore(int index) { return scores[index]; }
+    public Food[] getFoods() { return foods; }
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+    public long getTick() { return tick; }
+    public long getDeaths() { return deaths; }
+    public long getFoodEaten() { return foodEaten; }
+
+    public int getAliveCount() {
+        int count = 0;
+        for (boolean a : alive) {
+            if (a) count++;
+        }
+        return count;
+    }
+
+    public int getBestScore() {
+        int best = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (alive[i] && scores[i] > best) best = scores[i];
+        }
+        return best;
+    }
+}
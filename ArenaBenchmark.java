@@ -0,0 +1,43 @@
+/**
+ * Headless throughput benchmark for the multi-snake arena, run once on a single thread
+ * and once with the decision phase partitioned across all cores.
+ * The planners are bounded by search expansions only, not by time, so for the fixed seed the eaten, deaths and
+ * alive counts are the same on every run and for every thread count.
+ *
+ * Usage: java ArenaBenchmark [boardSize] [snakes] [foods] [ticks]
+ */
+public class ArenaBenchmark {
+
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int snakes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int foods = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Arena %dx%d, %d snakes, %d food, %d ticks%n", size, size, snakes, foods, ticks);
+        System.out.printf("%-8s %12s %12s %10s %10s %8s%n", "threads", "ticks/s", "us/tick", "eaten", "deaths", "alive");
+        run(size, snakes, foods, ticks, 1);
+        if (cores > 1) {
+            run(size, snakes, foods, ticks, cores);
+        }
+    }
+
+    private static void run(int size, int snakes, int foods, int ticks, int threads) {
+        try (Arena arena = new Arena(BoardConfig.square(size), snakes, foods,
+                () -> new PlannerPlayer(PlannerPlayer.DEFAULT_EXPANSION_BUDGET, Long.MAX_VALUE), threads, SEED)) {
+            for (int i = 0; i < ticks / 10; i++) { // Warm-up
+                arena.tick();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                arena.tick();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%-8d %12.1f %12.2f %10d %10d %8d%n", threads, ticks * 1e9 / elapsed,
+                    elapsed / 1000.0 / ticks, arena.getFoodEaten(), arena.getDeaths(), arena.getAliveCount());
+        }
+    }
+}
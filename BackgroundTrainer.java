@@ -0,0 +1,157 @@
+/**
+ * Trains an AIPlayer headless on its own thread, continuously, and publishes a greedy snapshot
+ * of its Q-table every PUBLISH_INTERVAL_GAMES games for live watch views.
+ *
+ * The AIPlayer belongs to the trainer thread while it runs; viewers only see published snapshots.
+ * It is saved at most once every SAVE_INTERVAL_MILLIS of wall-clock time, and once more when training stops.
+ * A trainer should own its AIPlayer's files: the BoardConfig-only constructor uses its own FILE_STEM,
+ * so it never writes the same Q-table files as a GamePanel's player.
+ */
+public class BackgroundTrainer {
+
+    private static final int PUBLISH_INTERVAL_GAMES = 100;
+    private static final long SAVE_INTERVAL_MILLIS = 60_000; // Headless training plays thousands of games a second
+    public static final String FILE_STEM = "q_live"; // q_live_table.dat, q_live_policy.dat, ...
+    private static final int AI_SCORE_WINDOW = 100;
+
+    private final AIPlayer aiPlayer;
+    private final BoardConfig boardConfig;
+    private final PolicyPublisher publisher = new PolicyPublisher();
+
+    private final Object lifecycleLock = new Object(); // Serialises start() and stopAndJoin(); held while joining a worker
+
+    // Guarded by this
+    private boolean running = false;
+    private Thread worker;
+
+    // Written by the trainer thread, read by views
+    private volatile long gamesPlayed = 0;
+    private volatile double averageScore = 0.0;
+    private volatile double epsilon;
+
+    /**
+     * Trains an AIPlayer persisted under FILE_STEM, with incremental checkpoints if the system property
+     * "snake.incrementalCheckpoints" is true.
+     */
+    public BackgroundTrainer(BoardConfig boardConfig) {
+        this(new AIPlayer(FILE_STEM, Boolean.getBoolean("snake.incrementalCheckpoints")), boardConfig);
+    }
+
+    /**
+     * @param aiPlayer The player to train. No other object may save it or use its files while the trainer exists.
+     */
+    public BackgroundTrainer(AIPlayer aiPlayer, BoardConfig boardConfig) {
+        this.aiPlayer = aiPlayer;
+        this.boardConfig = boardConfig;
+        this.epsilon = aiPlayer.getEpsilon();
+    }
+
+    /**
+     * Starts training if it isn't running yet. The current table is published right away,
+     * so viewers always have a snapshot to play.
+     * After stop(), waits for the previous worker to finish its episode and final save first,
+     * so two workers never update the same Q-table.
+     */
+    public void start() {
+        synchronized (lifecycleLock) {
+            Thread previous;
+            synchronized (this) {
+                if (running) {
+                    return;
+                }
+                previous = worker;
+            }
+            if (previous != null) {
+                try {
+                    previous.join(); // Outside this monitor: the old worker needs it to see that it should stop
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            synchronized (this) {
+                if (publisher.latest() == null) {
+                    publisher.publish(aiPlayer.freeze(), 0); // No worker is running, so the table is ours to read
+                }
+                running = true;
+                worker = new Thread(this::run, "background-trainer");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+    }
+
+    /**
+     * Stops training and waits for the worker to finish its episode and final save, e.g. before the JVM exits
+     * (the worker is a daemon thread, so exiting without this loses everything since the last periodic save).
+     */
+    public void stopAndJoin() {
+        synchronized (lifecycleLock) { // No start() can slip in a new worker while we wait
+            Thread previous;
+            synchronized (this) {
+                running = false;
+                previous = worker;
+            }
+            if (previous != null) {
+                try {
+                    previous.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    private synchronized boolean shouldContinue(Thread self) {
+        return running && worker == self;
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        HeadlessGame game = new HeadlessGame(boardConfig, System.nanoTime());
+        int[] recentScores = new int[AI_SCORE_WINDOW];
+        long scoreSum = 0;
+        long lastSave = System.currentTimeMillis();
+
+        while (shouldContinue(self)) {
+            int score = aiPlayer.trainEpisode(game, boardConfig.cellCount());
+            long games = gamesPlayed + 1;
+            int slot = (int) ((games - 1) % AI_SCORE_WINDOW);
+            scoreSum += score - recentScores[slot];
+            recentScores[slot] = score;
+            aiPlayer.decayEpsilon();
+
+            gamesPlayed = games;
+            averageScore = (double) scoreSum / Math.min(games, AI_SCORE_WINDOW);
+            epsilon = aiPlayer.getEpsilon();
+
+            if (games % PUBLISH_INTERVAL_GAMES == 0) {
+                publisher.publish(aiPlayer.freeze(), games);
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastSave >= SAVE_INTERVAL_MILLIS) {
+                save();
+                lastSave = now;
+            }
+        }
+        save(); // Keep everything learned since the last periodic save
+    }
+
+    private void save() {
+        aiPlayer.saveQTable();
+        aiPlayer.exportPolicy();
+    }
+
+    public PolicyPublisher getPublisher() { return publisher; }
+    public long getGamesPlayed() { return gamesPlayed; }
+    public double getAverageScore() { return averageScore; }
+    public double getEpsilon() { return epsilon; }
+}
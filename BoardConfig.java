@@ -0,0 +1,44 @@
+/**
+ * Runtime configuration of the game board.
+ *
+ * - width / height: Board dimensions in game units (cells).
+ * - initialLength: Number of segments the snake starts with.
+ *
+ * The snake starts a quarter of the way across the board, vertically centred, heading right.
+ */
+public record BoardConfig(int width, int height, int initialLength) {
+
+    public static final BoardConfig DEFAULT = new BoardConfig(24, 24, 5);
+
+    public BoardConfig {
+        if (width < 2 || height < 1) {
+            throw new IllegalArgumentException("Board must be at least 2x1 cells, got " + width + "x" + height);
+        }
+        if (initialLength < 1 || initialLength > width / 4 + 1) {
+            throw new IllegalArgumentException("Initial length " + initialLength + " does not fit a board " + width + " cells wide");
+        }
+    }
+
+    /**
+     * Square board with the default initial snake length, shortened if the board is too narrow for it.
+     */
+    public static BoardConfig square(int size) {
+        return new BoardConfig(size, size, Math.min(DEFAULT.initialLength(), size / 4 + 1));
+    }
+
+    public int startX() {
+        return width / 4;
+    }
+
+    public int startY() {
+        return height / 2;
+    }
+
+    public char startDirection() {
+        return 'R';
+    }
+
+    public long cellCount() {
+        return (long) width * height;
+    }
+}
@@ -1,52 +1,68 @@
 import java.awt.Point;
 import java.util.Random;
-import java.util.List; // Required if directly accessing List<Point> from Snake
 
 // No package declaration, assuming default package for Snake and other classes
 
 public class Food {
+    private static final int MAX_RANDOM_ATTEMPTS = 64;
+
     private Point position;
     private Random random;
     private int boardWidth;  // Game units (e.g., number of columns)
     private int boardHeight; // Game units (e.g., number of rows)
 
     public Food(int boardWidth, int boardHeight) {
+        this(boardWidth, boardHeight, new Random());
+    }
+
+    /**
+     * Creates food driven by the given random source, e.g. a seeded one for reproducible headless runs.
+     */
+    public Food(int boardWidth, int boardHeight, Random random) {
         this.boardWidth = boardWidth;
         this.boardHeight = boardHeight;
-        this.random = new Random();
+        this.random = random;
         // Position is not set here; it should be set by an explicit call to spawn()
         // This ensures that the food is placed considering the snake's initial position if necessary.
     }
 
     /**
      * Spawns the food at a new random location on the board, ensuring it does not overlap with the snake.
+     * Random probing is used first, so the cost doesn't depend on the board size unless the board is nearly full;
+     * after that a scan from a random cell finds any free cell left. If the board is full, the position becomes null.
      * @param snake The snake instance to check for collisions. Can be null, but food might spawn on snake.
      *              For robust behavior, it's best if the snake is always provided after its initialization.
      */
     public void spawn(Snake snake) {
-        boolean onSnake;
-        int x, y;
-        
-        List<Point> snakeBody = null;
-        if (snake != null) {
-            snakeBody = snake.getBody();
+        spawn(snake == null ? null : snake.getOccupancy());
+    }
+
+    /**
+     * Spawns the food on a random cell not covered by any segment in the given grid.
+     * @param occupancy The occupancy grid to avoid. Can be null, in which case any cell may be chosen.
+     */
+    public void spawn(OccupancyGrid occupancy) {
+        for (int attempt = 0; attempt < MAX_RANDOM_ATTEMPTS; attempt++) {
+            int x = random.nextInt(boardWidth);  // Generates 0 to boardWidth-1
+            int y = random.nextInt(boardHeight); // Generates 0 to boardHeight-1
+            if (occupancy == null || !occupancy.isOccupied(x, y)) {
+                this.position = new Point(x, y);
+                return;
+            }
         }
 
-        do {
-            x = random.nextInt(boardWidth);  // Generates 0 to boardWidth-1
-            y = random.nextInt(boardHeight); // Generates 0 to boardHeight-1
-            this.position = new Point(x, y);
-            
-            onSnake = false;
-            if (snakeBody != null && !snakeBody.isEmpty()) {
-                for (Point segment : snakeBody) {
-                    if (segment.equals(this.position)) {
-                        onSnake = true;
-                        break; 
-                    }
-                }
+        long cells = (long) boardWidth * boardHeight;
+        long start = (long) (random.nextDouble() * cells);
+        for (long i = 0; i < cells; i++) {
+            long cell = (start + i) % cells;
+            int x = (int) (cell % boardWidth);
+            int y = (int) (cell / boardWidth);
+            if (!occupancy.isOccupied(x, y)) {
+                this.position = new Point(x, y);
+                return;
             }
-        } while (onSnake);
+        }
+        this.position = null; // No free cell left
     }
 
     public Point getPosition() {
@@ -0,0 +1,214 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records a running simulation as a stream of per-tick delta frames for FrameServer viewers.
+ *
+ * The simulation thread reports every snake, food item and stat once per tick, between beginTick()
+ * and endTick(). The recorder compares them with the previous tick in O(1) per snake and food item and
+ * emits only what changed:
+ * - a move (new head cell, vacated tail cell) for a snake that advanced normally,
+ * - a spawn with the full body when a snake appears or was reset,
+ * - a death when a snake disappears,
+ * - food added/removed cells, and changed stats.
+ * Every KEYFRAME_INTERVAL ticks it also captures a full keyframe.
+ *
+ * Frames are immutable once published into a ring buffer, and publication is a single volatile write,
+ * so any number of viewer threads can read at their own pace without ever blocking the simulation.
+ * Viewers that fall further behind than the ring holds resynchronise from the latest keyframe.
+ */
+public class FrameRecorder {
+
+    // --- Event Encoding (int[] per frame) ---
+    static final int EVENT_MOVE = 1;        // id, headX, headY, tailX, tailY (tail -1, -1 when the snake grew)
+    static final int EVENT_SPAWN = 2;       // id, length, x0, y0, x1, y1, ... (head first)
+    static final int EVENT_DEATH = 3;       // id
+    static final int EVENT_FOOD_ADDED = 4;  // x, y
+    static final int EVENT_FOOD_REMOVED = 5; // x, y
+    static final int EVENT_STAT = 6;        // index, value (clamped to int)
+
+    static final int RING_SIZE = 4096;      // Ticks of history kept for slow viewers
+    static final int KEYFRAME_INTERVAL = 64;
+
+    /**
+     * Events of one tick. A keyframe holds spawn, food-added and stat events describing the whole board.
+     */
+    record Frame(long tick, boolean keyframe, int[] events) {}
+
+    private final String[] statNames;
+    private final Frame[] ring = new Frame[RING_SIZE];
+    private volatile long latestTick = -1;
+    private volatile Frame latestKeyframe;
+
+    // --- Simulation-side State (simulation thread only) ---
+    private long currentTick;
+    private int[] scratch = new int[256];
+    private int scratchSize;
+    private Snake[] snakes = new Snake[0];
+    private boolean[] alive = new boolean[0];
+    private Point[] previousHead = new Point[0];
+    private Point[] previousTail = new Point[0];
+    private int[] previousLength = new int[0];
+    private Point[] foods = new Point[0];
+    private long[] stats;
+    private boolean[] statSeen;
+
+    public FrameRecorder(String... statNames) {
+        this.statNames = statNames.clone();
+        this.stats = new long[statNames.length];
+        this.statSeen = new boolean[statNames.length];
+    }
+
+    // --- Recording (simulation thread) ---
+
+    public void beginTick(long tick) {
+        currentTick = tick;
+        scratchSize = 0;
+    }
+
+    /**
+     * Reports the state of one snake after this tick.
+     * @param id Stable identifier of the snake (e.g. its arena index).
+     * @param snake The snake; its body is read but not kept beyond the current head and tail references.
+     * @param isAlive False once the snake has died; a dead snake is reported once and then ignored.
+     */
+    public void snake(int id, Snake snake, boolean isAlive) {
+        ensureSnakeCapacity(id + 1);
+        snakes[id] = snake;
+        List<Point> body = snake.getBody();
+        boolean nowAlive = isAlive && !body.isEmpty();
+        if (!nowAlive) {
+            if (alive[id]) emit(EVENT_DEATH, id);
+            alive[id] = false;
+            previousHead[id] = null;
+            return;
+        }
+
+        Point head = body.get(0);
+        Point tail = body.get(body.size() - 1);
+        int length = body.size();
+        int growth = length - previousLength[id];
+        // Snake.move() keeps the old head Point as the second segment, so reference equality spots a normal move
+        boolean advanced = alive[id] && length > 1 && body.get(1) == previousHead[id] && (growth == 0 || growth == 1);
+        if (head != previousHead[id]) {
+            if (advanced) {
+                Point vacated = (growth == 0) ? previousTail[id] : null;
+                emit(EVENT_MOVE, id, head.x, head.y, vacated == null ? -1 : vacated.x, vacated == null ? -1 : vacated.y);
+            } else {
+                emitSpawn(id, body);
+            }
+        } else if (!alive[id]) {
+            emitSpawn(id, body);
+        }
+        alive[id] = true;
+        previousHead[id] = head;
+        previousTail[id] = tail;
+        previousLength[id] = length;
+    }
+
+    /**
+     * Reports the position of one food item after this tick (null if it is not on the board).
+     */
+    public void food(int id, Point position) {
+        if (id >= foods.length) foods = Arrays.copyOf(foods, Math.max(id + 1, foods.length * 2));
+        Point previous = foods[id];
+        if (previous == position || (previous != null && previous.equals(position))) return;
+        if (previous != null) emit(EVENT_FOOD_REMOVED, previous.x, previous.y);
+        if (position != null) emit(EVENT_FOOD_ADDED, position.x, position.y);
+        foods[id] = position;
+    }
+
+    public void stat(int index, long value) {
+        if (statSeen[index] && stats[index] == value) return;
+        statSeen[index] = true;
+        stats[index] = value;
+        emit(EVENT_STAT, index, clamp(value));
+    }
+
+    /**
+     * Publishes the tick's events, plus a keyframe every KEYFRAME_INTERVAL ticks.
+     */
+    public void endTick() {
+        Frame frame = new Frame(currentTick, false, Arrays.copyOf(scratch, scratchSize));
+        if (latestKeyframe == null || currentTick - latestKeyframe.tick() >= KEYFRAME_INTERVAL) {
+            latestKeyframe = buildKeyframe();
+        }
+        ring[(int) (currentTick % RING_SIZE)] = frame;
+        latestTick = currentTick; // Volatile write publishes the frame
+    }
+
+    private Frame buildKeyframe() {
+        scratchSize = 0;
+        for (int id = 0; id < snakes.length; id++) {
+            if (alive[id]) emitSpawn(id, snakes[id].getBody());
+        }
+        for (Point food : foods) {
+            if (food != null) emit(EVENT_FOOD_ADDED, food.x, food.y);
+        }
+        for (int i = 0; i < stats.length; i++) {
+            if (statSeen[i]) emit(EVENT_STAT, i, clamp(stats[i]));
+        }
+        return new Frame(currentTick, true, Arrays.copyOf(scratch, scratchSize));
+    }
+
+    private void emitSpawn(int id, List<Point> body) {
+        ensureScratch(3 + 2 * body.size());
+        scratch[scratchSize++] = EVENT_SPAWN;
+        scratch[scratchSize++] = id;
+        scratch[scratchSize++] = body.size();
+        for (Point segment : body) {
+            scratch[scratchSize++] = segment.x;
+            scratch[scratchSize++] = segment.y;
+        }
+    }
+
+    private void emit(int... values) {
+        ensureScratch(values.length);
+        System.arraycopy(values, 0, scratch, scratchSize, values.length);
+        scratchSize += values.length;
+    }
+
+    private void ensureScratch(int extra) {
+        if (scratchSize + extra > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchSize + extra));
+        }
+    }
+
+    private void ensureSnakeCapacity(int count) {
+        if (count <= snakes.length) return;
+        int size = Math.max(count, snakes.length * 2);
+        snakes = Arrays.copyOf(snakes, size);
+        alive = Arrays.copyOf(alive, size);
+        previousHead = Arrays.copyOf(previousHead, size);
+        previousTail = Arrays.copyOf(previousTail, size);
+        previousLength = Arrays.copyOf(previousLength, size);
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    // --- Reading (any thread) ---
+
+    public long getLatestTick() {
+        return latestTick;
+    }
+
+    Frame getLatestKeyframe() {
+        return latestKeyframe;
+    }
+
+    /**
+     * @return The frame of the given tick, or null if it has been overwritten or isn't published yet.
+     */
+    Frame getFrame(long tick) {
+        if (tick < 0 || tick > latestTick) return null;
+        Frame frame = ring[(int) (tick % RING_SIZE)];
+        return (frame != null && frame.tick() == tick) ? frame : null;
+    }
+
+    public String[] getStatNames() {
+        return statNames.clone();
+    }
+}
@@ -0,0 +1,375 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Embedded loopback server that streams a running simulation to remote viewers as delta-encoded frames.
+ *
+ * The simulation writes into a FrameRecorder and never waits for viewers. Each viewer gets its own thread,
+ * which wakes at the viewer's frame rate and sends everything that changed since its last frame. Frames are
+ * merged, so a 10 fps viewer of a 100 ticks/s simulation gets one frame per ten ticks. A viewer that falls
+ * behind (slow link, full socket buffer) only blocks its own thread. When its backlog is larger than a
+ * keyframe, or has left the recorder's ring, the missed frames are dropped and it resynchronises from the
+ * latest keyframe.
+ *
+ * Protocol (text lines, so a session can be inspected with e.g. nc):
+ *   Viewer sends:  SUBSCRIBE <fps>             (optional; DEFAULT_FPS if nothing arrives within a second)
+ *   Server sends:  HELLO <width> <height> <stat names...>
+ *                  then frames: F <tick> K|D ... E  (K = keyframe: replace the whole board, D = delta)
+ *   Frame lines:   M id hx hy tx ty   snake moved its head to (hx, hy) and vacated (tx, ty); -1 -1 if it grew
+ *                  S id len x y ...   snake spawned with this body (head first), replacing any old body
+ *                  X id               snake died
+ *                  + x y / - x y      food added / removed
+ *                  T index value      stat changed
+ *
+ * Usage (headless streaming host; the simulation runs until the process is stopped):
+ *   java FrameServer [--port 7777] [--mode arena|live] [--board 64] [--tick-ms 50]
+ *     arena: planner-driven multi-snake Arena
+ *     live:  trains an AIPlayer in the background and streams greedy games with the latest snapshot
+ */
+public class FrameServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 7777;
+    static final int DEFAULT_FPS = 30;
+    static final int MAX_FPS = 240;
+    private static final int SUBSCRIBE_TIMEOUT_MILLIS = 1000;
+    private static final int SEND_BUFFER_BYTES = 32 * 1024; // Small, so a stalled viewer isn't fed a long stale backlog
+
+    private final FrameRecorder recorder;
+    private final int boardWidth;
+    private final int boardHeight;
+    private final ServerSocket serverSocket;
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private volatile boolean open = true;
+
+    /**
+     * Binds to the loopback interface and starts accepting viewers.
+     * @param port TCP port, or 0 for any free port (see getPort()).
+     */
+    public FrameServer(FrameRecorder recorder, int boardWidth, int boardHeight, int port) throws IOException {
+        this.recorder = recorder;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "frame-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing frame server: " + e.getMessage());
+        }
+        for (Viewer viewer : viewers) {
+            viewer.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (open) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSendBufferSize(SEND_BUFFER_BYTES);
+                Viewer viewer = new Viewer(socket);
+                viewers.add(viewer);
+                Thread thread = new Thread(viewer, "frame-viewer-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (open) {
+                    System.err.println("Error accepting viewer: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // --- Viewer Session ---
+
+    /**
+     * One connected viewer. Runs on its own thread and only ever reads from the recorder.
+     */
+    private class Viewer implements Runnable {
+        private final Socket socket;
+        private long lastSentTick = -1;
+        private long framesSent = 0;
+        private long keyframesSent = 0;
+        private final List<FrameRecorder.Frame> pending = new ArrayList<>();
+
+        Viewer(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket) {
+                int fps = readSubscription();
+                long periodNanos = 1_000_000_000L / fps;
+                Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), SEND_BUFFER_BYTES);
+                out.write("HELLO " + boardWidth + " " + boardHeight);
+                for (String name : recorder.getStatNames()) {
+                    out.write(' ');
+                    out.write(name);
+                }
+                out.write('\n');
+                out.flush();
+
+                long nextFrame = System.nanoTime();
+                while (open) {
+                    long latest = recorder.getLatestTick();
+                    if (latest > lastSentTick) {
+                        sendUpTo(out, latest);
+                        out.flush(); // Blocks only this thread if the viewer can't keep up
+                    }
+                    nextFrame += periodNanos;
+                    long sleepNanos = nextFrame - System.nanoTime();
+                    if (sleepNanos > 0) {
+                        Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+                    } else {
+                        nextFrame = System.nanoTime(); // Fell behind: skip frames instead of bursting
+                    }
+                }
+            } catch (SocketException e) {
+                // Viewer disconnected
+            } catch (IOException e) {
+                System.err.println("Error streaming to viewer: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                viewers.remove(this);
+                System.out.printf("Viewer %s disconnected after %d frames (%d keyframes)%n",
+                        socket.getRemoteSocketAddress(), framesSent, keyframesSent);
+            }
+        }
+
+        private int readSubscription() throws IOException {
+            socket.setSoTimeout(SUBSCRIBE_TIMEOUT_MILLIS);
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                String line = in.readLine();
+                if (line != null && line.startsWith("SUBSCRIBE")) {
+                    String[] parts = line.trim().split("\\s+");
+                    if (parts.length > 1) {
+                        return Math.max(1, Math.min(MAX_FPS, Integer.parseInt(parts[1])));
+                    }
+                }
+            } catch (SocketTimeoutException | NumberFormatException e) {
+                // Fall back to the default rate
+            } finally {
+                socket.setSoTimeout(0);
+            }
+            return DEFAULT_FPS;
+        }
+
+        /**
+         * Sends one merged delta frame covering (lastSentTick, latest], or a keyframe plus the deltas after it
+         * when the backlog is gone from the ring or would be bigger than the keyframe itself.
+         */
+        private void sendUpTo(Writer out, long latest) throws IOException {
+            FrameRecorder.Frame keyframe = recorder.getLatestKeyframe();
+            boolean resync = lastSentTick < 0 || keyframe == null;
+            if (!resync && keyframe.tick() > lastSentTick) {
+                long backlog = 0;
+                for (long tick = lastSentTick + 1; tick <= latest; tick++) {
+                    FrameRecorder.Frame frame = recorder.getFrame(tick);
+                    if (frame == null) {
+                        resync = true;
+                        break;
+                    }
+                    backlog += frame.events().length;
+                    if (backlog > keyframe.events().length) {
+                        resync = true;
+                        break;
+                    }
+                }
+            }
+            long from = lastSentTick + 1;
+            if (resync) {
+                if (keyframe == null) return;
+                writeHeader(out, keyframe.tick(), true);
+                writeEvents(out, keyframe.events());
+                out.write("E\n");
+                keyframesSent++;
+                framesSent++;
+                lastSentTick = keyframe.tick();
+                from = keyframe.tick() + 1;
+            }
+
+            // Frames are immutable, so grabbing the references first gives a consistent merged frame
+            pending.clear();
+            for (long tick = from; tick <= latest; tick++) {
+                FrameRecorder.Frame frame = recorder.getFrame(tick);
+                if (frame == null) break; // Overwritten meanwhile; the next frame resynchronises
+                pending.add(frame);
+            }
+            if (pending.isEmpty()) return;
+            long upTo = pending.get(pending.size() - 1).tick();
+            writeHeader(out, upTo, false);
+            for (FrameRecorder.Frame frame : pending) {
+                writeEvents(out, frame.events());
+            }
+            out.write("E\n");
+            framesSent++;
+            lastSentTick = upTo;
+        }
+
+        private void writeHeader(Writer out, long tick, boolean key) throws IOException {
+            out.write("F " + tick + (key ? " K\n" : " D\n"));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    // --- Wire Encoding ---
+
+    static void writeEvents(Writer out, int[] events) throws IOException {
+        int i = 0;
+        while (i < events.length) {
+            switch (events[i]) {
+                case FrameRecorder.EVENT_MOVE -> {
+                    out.write("M " + events[i + 1] + " " + events[i + 2] + " " + events[i + 3] + " " + events[i + 4] + " " + events[i + 5] + "\n");
+                    i += 6;
+                }
+                case FrameRecorder.EVENT_SPAWN -> {
+                    int length = events[i + 2];
+                    StringBuilder line = new StringBuilder(16 + length * 8).append("S ").append(events[i + 1]).append(' ').append(length);
+                    for (int s = 0; s < 2 * length; s++) {
+                        line.append(' ').append(events[i + 3 + s]);
+                    }
+                    out.write(line.append('\n').toString());
+                    i += 3 + 2 * length;
+                }
+                case FrameRecorder.EVENT_DEATH -> {
+                    out.write("X " + events[i + 1] + "\n");
+                    i += 2;
+                }
+                case FrameRecorder.EVENT_FOOD_ADDED -> {
+                    out.write("+ " + events[i + 1] + " " + events[i + 2] + "\n");
+                    i += 3;
+                }
+                case FrameRecorder.EVENT_FOOD_REMOVED -> {
+                    out.write("- " + events[i + 1] + " " + events[i + 2] + "\n");
+                    i += 3;
+                }
+                case FrameRecorder.EVENT_STAT -> {
+                    out.write("T " + events[i + 1] + " " + events[i + 2] + "\n");
+                    i += 3;
+                }
+                default -> throw new IllegalStateException("Unknown frame event " + events[i]);
+            }
+        }
+    }
+
+    // --- Headless Streaming Host ---
+
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        String mode = "arena";
+        int board = 64;
+        int tickMillis = 50;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--mode" -> mode = args[i + 1];
+                case "--board" -> board = Integer.parseInt(args[i + 1]);
+                case "--tick-ms" -> tickMillis = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        BoardConfig config = BoardConfig.square(board);
+        GameClock clock = switch (mode) {
+            case "arena" -> startArena(config, port, tickMillis);
+            case "live" -> startLive(config, port, tickMillis);
+            default -> throw new IllegalArgumentException("Unknown mode " + mode + " (expected arena or live)");
+        };
+        System.out.printf("Streaming %s on %dx%d every %d ms; connect to %s:%d%n",
+                mode, board, board, tickMillis, InetAddress.getLoopbackAddress().getHostAddress(), port);
+        while (clock.isRunning()) {
+            Thread.sleep(1000);
+        }
+    }
+
+    private static GameClock startArena(BoardConfig config, int port, int tickMillis) throws IOException {
+        int snakes = (int) Math.max(1, config.cellCount() / 400);
+        Arena arena = new Arena(config, snakes, snakes, PlannerPlayer::new, 1, System.nanoTime());
+        FrameRecorder recorder = new FrameRecorder("tick", "alive", "best", "eaten", "deaths");
+        new FrameServer(recorder, config.width(), config.height(), port);
+        GameClock clock = new GameClock(tickMillis, scheduled -> {
+            arena.tick();
+            recorder.beginTick(arena.getTick());
+            for (int i = 0; i < arena.getSnakeCount(); i++) {
+                recorder.snake(i, arena.getSnake(i), arena.isAlive(i));
+            }
+            Food[] foods = arena.getFoods();
+            for (int i = 0; i < foods.length; i++) {
+                recorder.food(i, arena.isFoodPlaced(i) ? foods[i].getPosition() : null);
+            }
+            recorder.stat(0, arena.getTick());
+            recorder.stat(1, arena.getAliveCount());
+            recorder.stat(2, arena.getBestScore());
+            recorder.stat(3, arena.getFoodEaten());
+            recorder.stat(4, arena.getDeaths());
+            recorder.endTick();
+        });
+        clock.start();
+        return clock;
+    }
+
+    private static GameClock startLive(BoardConfig config, int port, int tickMillis) throws IOException {
+        BackgroundTrainer trainer = new BackgroundTrainer(config);
+        trainer.start();
+        HeadlessGame game = new HeadlessGame(config, System.nanoTime());
+        FrameRecorder recorder = new FrameRecorder("score", "policyVersion", "gamesTrained");
+        new FrameServer(recorder, config.width(), config.height(), port);
+        PolicyPublisher.Snapshot[] current = { trainer.getPublisher().latest() };
+        long[] tick = { 0 };
+        long maxStepsWithoutFood = 2L * config.cellCount(); // A greedy snake this long without food is looping
+        GameClock clock = new GameClock(tickMillis, scheduled -> {
+            if (!game.isRunning() || game.getStepsSinceFood() >= maxStepsWithoutFood) {
+                current[0] = trainer.getPublisher().latest(); // New game, newest policy
+                game.reset();
+            } else {
+                game.step(current[0].policy().chooseAction(game.getSnake(), game.getFood(), game.getBoardWidth(), game.getBoardHeight()));
+            }
+            recorder.beginTick(tick[0]++);
+            recorder.snake(0, game.getSnake(), game.isRunning());
+            recorder.food(0, game.getFood().getPosition());
+            recorder.stat(0, game.getScore());
+            recorder.stat(1, current[0].version());
+            recorder.stat(2, current[0].gamesTrained());
+            recorder.endTick();
+        });
+        clock.start();
+        return clock;
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Console viewer for a FrameServer stream. Rebuilds the board from keyframes and deltas, checks that every
+ * delta applies cleanly (a vacated tail cell must be the snake's tail) and prints a summary every second.
+ *
+ * Usage: java FrameViewer [port] [fps] [seconds] [readDelayMillis]
+ *   readDelayMillis > 0 stalls after every frame to simulate a slow viewer.
+ */
+public class FrameViewer {
+
+    private static final int RECEIVE_BUFFER_BYTES = 32 * 1024; // Keeps a stalled viewer's backlog short, so the server drops frames instead
+
+    private final Map<Integer, Deque<Long>> snakes = new HashMap<>(); // Cells packed as x << 32 | y, head first
+    private final Set<Long> foods = new HashSet<>();
+    private String[] statNames = new String[0];
+    private long[] stats = new long[0];
+    private long tick = -1;
+    private long frames = 0;
+    private long keyframes = 0;
+    private long lines = 0;
+    private long errors = 0;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : FrameServer.DEFAULT_PORT;
+        int fps = args.length > 1 ? Integer.parseInt(args[1]) : FrameServer.DEFAULT_FPS;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int readDelayMillis = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        new FrameViewer().watch(port, fps, seconds, readDelayMillis);
+    }
+
+    private void watch(int port, int fps, int seconds, int readDelayMillis) throws IOException, InterruptedException {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(RECEIVE_BUFFER_BYTES);
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            OutputStream out = socket.getOutputStream();
+            out.write(("SUBSCRIBE " + fps + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+            long end = System.nanoTime() + seconds * 1_000_000_000L;
+            long nextReport = System.nanoTime() + 1_000_000_000L;
+            String line;
+            while (System.nanoTime() < end && (line = in.readLine()) != null) {
+                lines++;
+                apply(line);
+                if (line.equals("E") && readDelayMillis > 0) {
+                    Thread.sleep(readDelayMillis);
+                }
+                if (System.nanoTime() >= nextReport) {
+                    report();
+                    nextReport += 1_000_000_000L;
+                }
+            }
+            report();
+        }
+    }
+
+    private void apply(String line) {
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "HELLO" -> {
+                statNames = new String[parts.length - 3];
+                System.arraycopy(parts, 3, statNames, 0, statNames.length);
+                stats = new long[statNames.length];
+                System.out.printf("Connected: board %sx%s%n", parts[1], parts[2]);
+            }
+            case "F" -> {
+                tick = Long.parseLong(parts[1]);
+                frames++;
+                if (parts[2].equals("K")) {
+                    keyframes++;
+                    snakes.clear();
+                    foods.clear();
+                }
+            }
+            case "M" -> {
+                Deque<Long> body = snakes.get(Integer.parseInt(parts[1]));
+                if (body == null) {
+                    errors++;
+                    return;
+                }
+                int tailX = Integer.parseInt(parts[4]);
+                if (tailX >= 0) {
+                    long vacated = cell(tailX, Integer.parseInt(parts[5]));
+                    if (body.isEmpty() || body.peekLast() != vacated) {
+                        errors++;
+                    }
+                    body.pollLast();
+                }
+                body.addFirst(cell(Integer.parseInt(parts[2]), Integer.parseInt(parts[3])));
+            }
+            case "S" -> {
+                Deque<Long> body = new ArrayDeque<>();
+                int length = Integer.parseInt(parts[2]);
+                for (int s = 0; s < length; s++) {
+                    body.addLast(cell(Integer.parseInt(parts[3 + 2 * s]), Integer.parseInt(parts[4 + 2 * s])));
+                }
+                snakes.put(Integer.parseInt(parts[1]), body);
+            }
+            case "X" -> snakes.remove(Integer.parseInt(parts[1]));
+            case "+" -> foods.add(cell(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+            case "-" -> {
+                if (!foods.remove(cell(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])))) {
+                    errors++;
+                }
+            }
+            case "T" -> {
+                int index = Integer.parseInt(parts[1]);
+                if (index < stats.length) stats[index] = Long.parseLong(parts[2]);
+            }
+            case "E" -> { }
+            default -> errors++;
+        }
+    }
+
+    private void report() {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < statNames.length; i++) {
+            summary.append(' ').append(statNames[i]).append('=').append(stats[i]);
+        }
+        System.out.printf("tick %d: %d frames (%d keyframes), %d lines, %d snakes, %d food, %d errors |%s%n",
+                tick, frames, keyframes, lines, snakes.size(), foods.size(), errors, summary);
+    }
+
+    private static long cell(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,152 @@
+import java.awt.Point;
+import java.io.*;
+import java.util.Map;
+
+/**
+ * An immutable greedy policy compiled from a trained Q-table.
+ *
+ * Every encoded State maps to one byte holding its best action, so inference is a single array load:
+ * no allocation, no Q-value scan and no writes. States the table has never seen are filled in at
+ * compile time (first unblocked of straight, left, right; otherwise the fallback action).
+ * Instances never change after construction and can be shared by any number of threads.
+ *
+ * File format: magic, version, state count, fallback action, then one action byte per encoded state.
+ */
+public final class FrozenPolicy implements SnakePolicy {
+
+    public static final String DEFAULT_FILE = "q_policy.dat";
+    private static final int MAGIC = 0x534E4B50; // "SNKP"
+    private static final int VERSION = 1;
+
+    private final byte[] actions; // Indexed by State.encode()
+    private final byte fallbackAction;
+
+    private FrozenPolicy(byte[] actions, byte fallbackAction) {
+        this.actions = actions;
+        this.fallbackAction = fallbackAction;
+    }
+
+    /**
+     * Compiles the greedy action of every state in the Q-table.
+     * @param qTable The trained Q-table. It is only read.
+     * @param fallbackAction Action (0, 1, or 2) for unseen states where every move is blocked,
+     *                       and for ticks where the game state is incomplete.
+     */
+    public static FrozenPolicy compile(Map<State, double[]> qTable, int fallbackAction) {
+        byte[] actions = new byte[State.STATE_COUNT];
+        boolean[] seen = new boolean[State.STATE_COUNT];
+        for (Map.Entry<State, double[]> entry : qTable.entrySet()) {
+            int index = entry.getKey().encode();
+            double[] qValues = entry.getValue();
+            int bestAction = 0;
+            for (int i = 1; i < qValues.length; i++) { // Same tie-breaking as AIPlayer.chooseAction
+                if (qValues[i] > qValues[bestAction]) {
+                    bestAction = i;
+                }
+            }
+            actions[index] = (byte) bestAction;
+            seen[index] = true;
+        }
+        for (int index = 0; index < State.STATE_COUNT; index++) {
+            if (!seen[index]) {
+                actions[index] = (byte) unseenAction(State.decode(index), fallbackAction);
+            }
+        }
+        return new FrozenPolicy(actions, (byte) fallbackAction);
+    }
+
+    private static int unseenAction(State state, int fallbackAction) {
+        if (!state.isObstacleStraightRelative()) return 1;
+        if (!state.isObstacleLeftRelative()) return 0;
+        if (!state.isObstacleRightRelative()) return 2;
+        return fallbackAction;
+    }
+
+    // --- Inference ---
+
+    /**
+     * @param encodedState A state index from State.encode().
+     * @return The greedy action (0, 1, or 2).
+     */
+    public int actionFor(int encodedState) {
+        return actions[encodedState];
+    }
+
+    /**
+     * Computes the same state as AIPlayer.getCurrentState, but straight into its encoded form without allocating.
+     */
+    @Override
+    public int chooseAction(Snake snake, Food food, int boardWidth, int boardHeight) {
+        Point head = snake.getHead();
+        Point foodPos = food.getPosition();
+        if (head == null || foodPos == null) {
+            return fallbackAction;
+        }
+        char direction = snake.getDirection();
+        int dx = 0, dy = 0; // Straight ahead
+        switch (direction) {
+            case 'U': dy = -1; break;
+            case 'D': dy = 1; break;
+            case 'L': dx = -1; break;
+            case 'R': dx = 1; break;
+        }
+        // Turning left rotates (dx, dy) to (dy, -dx); turning right to (-dy, dx)
+        boolean obstacleLeft = isObstacleAt(snake, head.x + dy, head.y - dx, boardWidth, boardHeight);
+        boolean obstacleStraight = isObstacleAt(snake, head.x + dx, head.y + dy, boardWidth, boardHeight);
+        boolean obstacleRight = isObstacleAt(snake, head.x - dy, head.y + dx, boardWidth, boardHeight);
+
+        return actions[State.encode(Integer.compare(foodPos.x, head.x), Integer.compare(foodPos.y, head.y),
+                obstacleLeft, obstacleStraight, obstacleRight, direction)];
+    }
+
+    private static boolean isObstacleAt(Snake snake, int x, int y, int boardWidth, int boardHeight) {
+        return x < 0 || x >= boardWidth || y < 0 || y >= boardHeight || snake.isOccupied(x, y);
+    }
+
+    // --- Persistence ---
+
+    public void save(String file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(actions.length);
+            out.writeByte(fallbackAction);
+            out.write(actions);
+        }
+    }
+
+    public static FrozenPolicy load(String file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a frozen policy file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported frozen policy version " + version + " in " + file);
+            }
+            int stateCount = in.readInt();
+            if (stateCount != State.STATE_COUNT) {
+                throw new IOException("Frozen policy in " + file + " has " + stateCount + " states, expected " + State.STATE_COUNT);
+            }
+            byte fallbackAction = in.readByte();
+            byte[] actions = new byte[stateCount];
+            in.readFully(actions);
+            for (byte action : actions) {
+                if (action < 0 || action > 2) {
+                    throw new IOException("Invalid action " + action + " in " + file);
+                }
+            }
+            return new FrozenPolicy(actions, fallbackAction);
+        }
+    }
+
+    /**
+     * Export step: compiles the saved Q-table into a frozen policy file.
+     * Usage: java FrozenPolicy [outputFile]
+     */
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : DEFAULT_FILE;
+        new AIPlayer().freeze().save(output);
+        System.out.println("Frozen policy written to " + output);
+    }
+}
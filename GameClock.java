@@ -0,0 +1,108 @@
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * High-resolution fixed-timestep clock that drives the game loop on its own thread.
+ *
+ * Deadlines are kept on System.nanoTime() and advance by exactly one period per tick, so timing errors
+ * don't accumulate. The thread parks until shortly before each deadline and spins the rest of the way.
+ * If a tick overruns, the missed deadlines are skipped rather than replayed in a burst.
+ *
+ * The tick callback receives the scheduled deadline, so callers can measure jitter against it.
+ * start() and stop() may be called from any thread, including from inside a tick.
+ */
+public class GameClock {
+    private static final long MAX_SPIN_NANOS = 200_000; // Busy-wait at most this long before each deadline
+
+    private final LongConsumer tick;
+    private volatile long periodNanos;
+
+    // Guarded by this
+    private boolean running = false;
+    private boolean rearmed = false; // Restart the schedule from now on the next loop iteration
+    private Thread worker;
+
+    private volatile long missedTicks = 0;
+
+    /**
+     * @param periodMillis Tick period in milliseconds.
+     * @param tick Called once per tick on the clock thread with the scheduled deadline (System.nanoTime() based).
+     */
+    public GameClock(int periodMillis, LongConsumer tick) {
+        this.tick = tick;
+        setDelay(periodMillis);
+    }
+
+    public void setDelay(int periodMillis) {
+        this.periodNanos = Math.max(1, periodMillis) * 1_000_000L;
+    }
+
+    public synchronized void start() {
+        running = true;
+        rearmed = true;
+        if (worker == null) {
+            worker = new Thread(this::run, "game-clock");
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public long getMissedTicks() {
+        return missedTicks;
+    }
+
+    private void run() {
+        long next = 0;
+        while (true) {
+            synchronized (this) {
+                if (!running) {
+                    worker = null;
+                    return;
+                }
+                if (rearmed) {
+                    next = System.nanoTime() + periodNanos;
+                    rearmed = false;
+                }
+            }
+
+            long period = periodNanos;
+            long spinNanos = Math.min(MAX_SPIN_NANOS, period / 10);
+            long remaining = next - System.nanoTime();
+            if (remaining > spinNanos) {
+                LockSupport.parkNanos(remaining - spinNanos);
+                continue; // Re-check for stop/restart after waking
+            }
+            while (System.nanoTime() - next < 0) {
+                Thread.onSpinWait();
+            }
+
+            long scheduled = next;
+            try {
+                tick.accept(scheduled);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keep the clock alive, like a Swing Timer would
+            }
+
+            next = scheduled + period;
+            long behind = System.nanoTime() - next;
+            if (behind >= 0) { // The tick overran: skip to the next deadline still ahead
+                long skipped = behind / period + 1;
+                next += skipped * period;
+                missedTicks += skipped;
+            }
+        }
+    }
+}
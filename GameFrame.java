@@ -2,14 +2,29 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public class GameFrame extends JFrame {
 
     private GamePanel gamePanel;
+    private BoardConfig boardConfig;
+    private BackgroundTrainer trainer; // Created on first use and shared by every live view
 
     public GameFrame() {
+        this(BoardConfig.DEFAULT);
+    }
+
+    public GameFrame(BoardConfig boardConfig) {
+        this.boardConfig = boardConfig;
         setTitle("Snake Game");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE); // exitApplication() saves the trainer first
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exitApplication();
+            }
+        });
         // setResizable(false); // Decided to keep it resizable for now, can be changed later if needed.
 
         // Menu Panel
@@ -20,6 +35,10 @@ public class GameFrame extends JFrame {
         JButton playButton = new JButton("Play Manually");
         JButton trainButton = new JButton("Train AI");
         JButton watchButton = new JButton("Watch AI Play");
+        JButton plannerButton = new JButton("Watch Planner");
+        JButton arenaButton = new JButton("Arena");
+        JButton liveButton = new JButton("Live Watch");
+        JButton liveWindowButton = new JButton("New Live View");
         JButton exitButton = new JButton("Exit");
 
         playButton.addActionListener(e -> {
@@ -34,15 +53,35 @@ public class GameFrame extends JFrame {
             System.out.println("Watch AI Play clicked");
             gamePanel.startWatchAI();
         });
-        exitButton.addActionListener(e -> System.exit(0)); // Exits the application
+        plannerButton.addActionListener(e -> {
+            System.out.println("Watch Planner clicked");
+            gamePanel.startWatchPlanner();
+        });
+        arenaButton.addActionListener(e -> {
+            System.out.println("Arena clicked");
+            gamePanel.startArena();
+        });
+        liveButton.addActionListener(e -> {
+            System.out.println("Live Watch clicked");
+            gamePanel.startLiveWatch(getTrainer());
+        });
+        liveWindowButton.addActionListener(e -> {
+            System.out.println("New Live View clicked");
+            openLiveView();
+        });
+        exitButton.addActionListener(e -> exitApplication());
 
         menuPanel.add(playButton);
         menuPanel.add(trainButton);
         menuPanel.add(watchButton);
+        menuPanel.add(plannerButton);
+        menuPanel.add(arenaButton);
+        menuPanel.add(liveButton);
+        menuPanel.add(liveWindowButton);
         menuPanel.add(exitButton);
 
         // Game Panel
-        gamePanel = new GamePanel(); // GamePanel should have its own preferred size
+        gamePanel = new GamePanel(boardConfig); // GamePanel should have its own preferred size
 
         setLayout(new BorderLayout());
         add(menuPanel, BorderLayout.NORTH); // Menu at the top
@@ -56,6 +95,43 @@ public class GameFrame extends JFrame {
                            // Let's rely on Main.java to make it visible.
     }
 
+    private BackgroundTrainer getTrainer() {
+        if (trainer == null) {
+            trainer = new BackgroundTrainer(boardConfig); // Own files, separate from the panel's AIPlayer
+        }
+        return trainer;
+    }
+
+    /**
+     * Stops the background trainer, if one was started, and waits for its final save before exiting.
+     */
+    private void exitApplication() {
+        if (trainer != null) {
+            trainer.stopAndJoin();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Opens an additional window that watches the background trainer's latest policy.
+     */
+    private void openLiveView() {
+        GamePanel livePanel = new GamePanel(boardConfig);
+        JFrame liveFrame = new JFrame("Snake Game - Live Policy");
+        liveFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        liveFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                livePanel.stopGame();
+            }
+        });
+        liveFrame.add(livePanel);
+        liveFrame.pack();
+        liveFrame.setLocationByPlatform(true);
+        liveFrame.setVisible(true);
+        livePanel.startLiveWatch(getTrainer());
+    }
+
     // Optional main method for testing GameFrame independently
     /*
     public static void main(String[] args) {
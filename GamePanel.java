@@ -1,6 +1,5 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
@@ -12,213 +11,397 @@ public class GamePanel extends JPanel {
     // --- Constants ---
     static final int SCREEN_WIDTH = 600;
     static final int SCREEN_HEIGHT = 600;
-    static final int UNIT_SIZE = 25;
-    static final int GAME_UNITS_X = SCREEN_WIDTH / UNIT_SIZE;
-    static final int GAME_UNITS_Y = SCREEN_HEIGHT / UNIT_SIZE;
+    static final int MIN_UNIT_SIZE = 4;       // Below this the view scrolls with the snake instead of shrinking further
+    static final int MIN_GRID_UNIT_SIZE = 8;  // Grid lines are skipped for smaller cells
     
     private static final int MANUAL_DELAY = 150; // Game speed for manual/watch mode
     private static final int TRAINING_DELAY = 1;  // Faster speed for AI training
     private static final int AI_SCORE_WINDOW = 100; // For calculating average score
+    private static final int ARENA_CELLS_PER_SNAKE = 400; // Arena population scales with the board
+    private static final int ARENA_MAX_SNAKES = 200;
+    private static final int INPUT_QUEUE_CAPACITY = 4;   // Key presses buffered ahead of the game loop
+    private static final int LATENCY_WINDOW = 1024;      // Recent samples kept for percentiles
 
     // --- Rewards for AI ---
-    private static final double FOOD_REWARD = 50.0;
-    private static final double GAMEOVER_REWARD = -100.0;
-    private static final double STEP_REWARD = -1.0; // Small penalty per step
+    static final double FOOD_REWARD = 50.0;
+    static final double GAMEOVER_REWARD = -100.0;
+    static final double STEP_REWARD = -1.0; // Small penalty per step
 
     // --- Game Mode ---
-    public enum GameMode { MANUAL, TRAIN_AI, WATCH_AI }
-    private GameMode currentMode = GameMode.MANUAL;
+    public enum GameMode { MANUAL, TRAIN_AI, WATCH_AI, WATCH_PLANNER, ARENA, LIVE_WATCH }
+    private volatile GameMode currentMode = GameMode.MANUAL;
+
+    // --- Board Configuration ---
+    private final BoardConfig boardConfig;
+    private final int gameUnitsX;
+    private final int gameUnitsY;
+
+    // --- Viewport (recomputed on every paint) ---
+    private int unitSize;
+    private int viewOriginX; // Leftmost visible cell
+    private int viewOriginY; // Topmost visible cell
+    private int viewCellsX;
+    private int viewCellsY;
 
     // --- Game State Variables ---
+    // The game loop runs on the GameClock thread; everything it shares with the event thread is guarded by stateLock.
+    private final Object stateLock = new Object();
     private Snake snake;
     private Food food;
-    private Timer gameTimer;
-    private boolean running = false;
+    private GameClock gameTimer;
+    private volatile boolean running = false;
     private int score = 0;
     private int bestScore = 0; 
 
     // --- AI Related Fields ---
-    private AIPlayer aiPlayer;
+    private AIPlayer aiPlayer; // Created by getAIPlayer(); set whenever the mode is TRAIN_AI
     private long gamesPlayedAI = 0;
     private double averageScoreAI = 0.0;
     private List<Integer> recentScoresAI = new ArrayList<>();
+    private PlannerPlayer plannerPlayer;
+    private FrozenPolicy watchPolicy; // Greedy snapshot of the Q-table used by WATCH_AI
+
+    // --- Live Watch Mode ---
+    private BackgroundTrainer liveTrainer;
+    private PolicyPublisher.Snapshot liveSnapshot; // Snapshot played by the current game; refreshed every game
+
+    // --- Arena Mode ---
+    private Arena arena;
+    private Color[] arenaColors;
     
     // --- Input Handling ---
     private MyKeyAdapter keyAdapter;
+    private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY);
+    private long pendingInputTimestamp = 0; // Arrival time of the command applied this tick, 0 if none
+    private final LatencyStats inputLatency = new LatencyStats(LATENCY_WINDOW);
+    private final LatencyStats tickJitter = new LatencyStats(LATENCY_WINDOW);
 
     public GamePanel() {
+        this(BoardConfig.DEFAULT);
+    }
+
+    public GamePanel(BoardConfig boardConfig) {
+        this.boardConfig = boardConfig;
+        this.gameUnitsX = boardConfig.width();
+        this.gameUnitsY = boardConfig.height();
         this.keyAdapter = new MyKeyAdapter();
-        this.aiPlayer = new AIPlayer(); // Initialize AI Player (loads Q-table)
+        this.plannerPlayer = new PlannerPlayer();
 
         this.setPreferredSize(new Dimension(SCREEN_WIDTH, SCREEN_HEIGHT));
         this.setBackground(Color.black);
         this.setFocusable(true);
         this.addKeyListener(keyAdapter);
         
-        // Initialize game timer but don't start it yet. Delay will be set by mode.
-        // The initial action listener is a generic one, will be overwritten by specific game loop.
-        // Or, we can simply make gameTimer null here and initialize in startGameLogic
-        this.gameTimer = new Timer(MANUAL_DELAY, this::actionPerformedGameLoop); 
+        // Initialize game clock but don't start it yet. Delay will be set by mode.
+        this.gameTimer = new GameClock(MANUAL_DELAY, this::actionPerformedGameLoop);
+    }
+
+    /**
+     * The panel's own Q-learning player, loaded on first use so panels that never train or watch it
+     * (e.g. live views of the background trainer) never touch the Q-table files.
+     */
+    private AIPlayer getAIPlayer() {
+        if (aiPlayer == null) {
+            aiPlayer = new AIPlayer(); // Loads the Q-table
+        }
+        return aiPlayer;
     }
 
     // --- Mode Control Methods ---
     public void startManualGame() {
-        currentMode = GameMode.MANUAL;
-        System.out.println("Starting Manual Game Mode.");
-        if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY);
-        startGameLogic();
+        synchronized (stateLock) {
+            currentMode = GameMode.MANUAL;
+            System.out.println("Starting Manual Game Mode.");
+            if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY);
+            startGameLogic();
+        }
     }
 
     public void startTrainAI() {
-        currentMode = GameMode.TRAIN_AI;
-        System.out.println("Starting AI Training Mode.");
-        aiPlayer.setEpsilon(1.0); // Reset epsilon for new training session
-        gamesPlayedAI = 0;
-        recentScoresAI.clear();
-        averageScoreAI = 0.0;
-        if (gameTimer != null) gameTimer.setDelay(TRAINING_DELAY); else System.err.println("Timer null in startTrainAI");
-        startGameLogic();
+        synchronized (stateLock) {
+            currentMode = GameMode.TRAIN_AI;
+            System.out.println("Starting AI Training Mode.");
+            getAIPlayer().setEpsilon(1.0); // Reset epsilon for new training session
+            gamesPlayedAI = 0;
+            recentScoresAI.clear();
+            averageScoreAI = 0.0;
+            if (gameTimer != null) gameTimer.setDelay(TRAINING_DELAY); else System.err.println("Timer null in startTrainAI");
+            startGameLogic();
+        }
     }
 
     public void startWatchAI() {
-        currentMode = GameMode.WATCH_AI;
-        System.out.println("Starting Watch AI Mode.");
-        aiPlayer.setEpsilon(0.0); // No exploration when watching
-        if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY); // Watch at human speed
-        startGameLogic();
+        synchronized (stateLock) {
+            currentMode = GameMode.WATCH_AI;
+            System.out.println("Starting Watch AI Mode.");
+            watchPolicy = getAIPlayer().freeze(); // Greedy and read-only: watching never touches the Q-table
+            if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY); // Watch at human speed
+            startGameLogic();
+        }
+    }
+
+    public void startWatchPlanner() {
+        synchronized (stateLock) {
+            currentMode = GameMode.WATCH_PLANNER;
+            System.out.println("Starting Watch Planner Mode.");
+            if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY); // Watch at human speed
+            startGameLogic();
+        }
     }
     
-    // --- Core Game Initialization Logic ---
-    private void startGameLogic() {
-        running = false; // Stop current game if any
+    /**
+     * Plays greedy games against the latest snapshot published by a trainer that keeps running in the background.
+     * Several panels can watch the same trainer. BackgroundTrainer.start() publishes a snapshot before it returns,
+     * so a live game always has a policy to play.
+     */
+    public void startLiveWatch(BackgroundTrainer trainer) {
+        synchronized (stateLock) {
+            trainer.start(); // No-op if it is already training
+            if (trainer.getPublisher().latest() == null) {
+                throw new IllegalStateException("Trainer has not published a policy snapshot");
+            }
+            currentMode = GameMode.LIVE_WATCH;
+            System.out.println("Starting Live Watch Mode.");
+            liveTrainer = trainer;
+            if (gameTimer != null) gameTimer.setDelay(MANUAL_DELAY); // Watch at human speed
+            startGameLogic();
+        }
+    }
+
+    /**
+     * Stops whatever this panel is running, e.g. when its window closes.
+     */
+    public void stopGame() {
+        synchronized (stateLock) {
+            stopCurrentGame();
+        }
+    }
+
+    public void startArena() {
+        synchronized (stateLock) {
+            currentMode = GameMode.ARENA;
+            System.out.println("Starting Arena Mode.");
+            stopCurrentGame();
+
+            int snakeCount = (int) Math.max(4, Math.min(ARENA_MAX_SNAKES, boardConfig.cellCount() / ARENA_CELLS_PER_SNAKE));
+            int threads = Runtime.getRuntime().availableProcessors();
+            arena = new Arena(boardConfig, snakeCount, snakeCount, PlannerPlayer::new, threads, System.nanoTime());
+            arenaColors = new Color[snakeCount];
+            for (int i = 0; i < snakeCount; i++) {
+                arenaColors[i] = Color.getHSBColor((float) i / snakeCount, 0.8f, 0.9f);
+            }
+
+            running = true;
+            gameTimer.setDelay(MANUAL_DELAY);
+            gameTimer.start();
+            this.requestFocusInWindow();
+            repaint();
+        }
+    }
+
+    private void stopCurrentGame() {
+        running = false;
         if (gameTimer != null && gameTimer.isRunning()) {
             gameTimer.stop();
         }
+        if (arena != null) {
+            arena.close();
+            arena = null;
+        }
+    }
 
-        snake = new Snake(GAME_UNITS_X / 4, GAME_UNITS_Y / 2, 5, 'R', GAME_UNITS_X, GAME_UNITS_Y);
-        food = new Food(GAME_UNITS_X, GAME_UNITS_Y);
+    // --- Core Game Initialization Logic ---
+    private void startGameLogic() {
+        stopCurrentGame(); // Stop current game if any
+
+        // Reuse the snake and food between games so large boards don't reallocate their occupancy grid on every restart
+        if (snake == null) {
+            snake = new Snake(boardConfig.startX(), boardConfig.startY(), boardConfig.initialLength(),
+                    boardConfig.startDirection(), gameUnitsX, gameUnitsY);
+            food = new Food(gameUnitsX, gameUnitsY);
+        } else {
+            snake.reset(boardConfig.startX(), boardConfig.startY(), boardConfig.initialLength(), boardConfig.startDirection());
+        }
         food.spawn(snake);
 
+        if (currentMode == GameMode.LIVE_WATCH) {
+            liveSnapshot = liveTrainer.getPublisher().latest(); // Each game plays one consistent snapshot
+        }
+
         score = 0;
+        inputQueue.clear();
+        pendingInputTimestamp = 0;
+        inputLatency.reset();
+        tickJitter.reset();
         running = true;
 
         if (gameTimer == null) { // Should ideally be initialized in constructor
              System.err.println("CRITICAL: gameTimer was null in startGameLogic. Re-initializing.");
              int delay = (currentMode == GameMode.TRAIN_AI) ? TRAINING_DELAY : MANUAL_DELAY;
-             gameTimer = new Timer(delay, this::actionPerformedGameLoop);
+             gameTimer = new GameClock(delay, this::actionPerformedGameLoop);
         } else { // Ensure correct delay for the current mode
             int delay = (currentMode == GameMode.TRAIN_AI) ? TRAINING_DELAY : MANUAL_DELAY;
-            if (currentMode == GameMode.WATCH_AI) delay = MANUAL_DELAY; // Watch AI runs at manual speed
+            if (currentMode == GameMode.WATCH_AI || currentMode == GameMode.WATCH_PLANNER || currentMode == GameMode.LIVE_WATCH) delay = MANUAL_DELAY; // Watch modes run at manual speed
             gameTimer.setDelay(delay);
         }
-        
+
         gameTimer.start();
-        this.requestFocusInWindow();
+        if (SwingUtilities.isEventDispatchThread()) { // Training restarts from the clock thread
+            this.requestFocusInWindow();
+        }
         repaint();
     }
 
     // --- Main Game Loop ---
-    private void actionPerformedGameLoop(ActionEvent e) {
-        if (running) {
-            State oldStateForAI = null;
-            int actionForAI = -1; // 0: left, 1: straight, 2: right
-
-            if (currentMode == GameMode.TRAIN_AI || currentMode == GameMode.WATCH_AI) {
-                if (snake == null || food == null) { // Safety check
-                    running = false; 
-                } else {
-                    oldStateForAI = aiPlayer.getCurrentState(snake, food, GAME_UNITS_X, GAME_UNITS_Y);
-                    actionForAI = aiPlayer.chooseAction(oldStateForAI, currentMode == GameMode.TRAIN_AI);
-                    performAIAction(actionForAI);
+    /**
+     * One game tick, run on the GameClock thread.
+     * @param scheduledNanos The tick's deadline; the difference to the actual start is recorded as jitter.
+     */
+    private void actionPerformedGameLoop(long scheduledNanos) {
+        synchronized (stateLock) {
+            tickJitter.record(System.nanoTime() - scheduledNanos);
+            if (currentMode == GameMode.ARENA) {
+                if (running && arena != null) {
+                    arena.tick();
                 }
+                repaint();
+                return;
             }
-            // In MANUAL mode, snake direction is set by MyKeyAdapter
-
-            if (running) { // Check if still running after AI might have found no snake/food
-                snake.move();
-
-                boolean gameOver = snake.checkCollisionWithWall() || snake.checkCollisionWithSelf();
-                boolean foodEatenThisTick = false;
-                double reward = STEP_REWARD; // Default reward for taking a step
-
-                if (!gameOver && snake.getHead().equals(food.getPosition())) {
-                    foodEatenThisTick = true;
-                    snake.grow();
-                    score++;
-                    if (score > bestScore) bestScore = score;
-                    food.spawn(snake);
-                    reward = FOOD_REWARD;
-                }
 
-                if (gameOver) {
-                    running = false;
-                    reward = GAMEOVER_REWARD;
+            if (running) {
+                State oldStateForAI = null;
+                int actionForAI = -1; // 0: left, 1: straight, 2: right
+
+                if (currentMode == GameMode.TRAIN_AI) {
+                    if (snake == null || food == null) { // Safety check
+                        running = false;
+                    } else {
+                        oldStateForAI = aiPlayer.getCurrentState(snake, food, gameUnitsX, gameUnitsY);
+                        actionForAI = aiPlayer.chooseAction(oldStateForAI, true);
+                        performAIAction(actionForAI);
+                    }
+                } else if (currentMode == GameMode.WATCH_AI || currentMode == GameMode.WATCH_PLANNER
+                        || currentMode == GameMode.LIVE_WATCH) {
+                    if (snake == null || food == null
+                            || (currentMode == GameMode.LIVE_WATCH && liveSnapshot == null)) { // Safety check
+                        running = false;
+                    } else {
+                        SnakePolicy policy = (currentMode == GameMode.WATCH_AI) ? watchPolicy
+                                : (currentMode == GameMode.LIVE_WATCH) ? liveSnapshot.policy() : plannerPlayer;
+                        performAIAction(policy.chooseAction(snake, food, gameUnitsX, gameUnitsY));
+                    }
+                } else if (currentMode == GameMode.MANUAL && snake != null) {
+                    applyQueuedInput(); // Keys are buffered by MyKeyAdapter
                 }
 
-                if (currentMode == GameMode.TRAIN_AI && oldStateForAI != null) {
-                    State newStateForAI = gameOver ? null : aiPlayer.getCurrentState(snake, food, GAME_UNITS_X, GAME_UNITS_Y);
-                    aiPlayer.updateQValue(oldStateForAI, actionForAI, reward, newStateForAI, gameOver);
+                if (running) { // Check if still running after AI might have found no snake/food
+                    snake.move();
+                    if (pendingInputTimestamp != 0) {
+                        inputLatency.record(System.nanoTime() - pendingInputTimestamp);
+                        pendingInputTimestamp = 0;
+                    }
+
+                    boolean gameOver = snake.checkCollisionWithWall() || snake.checkCollisionWithSelf();
+                    boolean foodEatenThisTick = false;
+                    double reward = STEP_REWARD; // Default reward for taking a step
+
+                    if (!gameOver && snake.getHead().equals(food.getPosition())) {
+                        foodEatenThisTick = true;
+                        snake.grow();
+                        score++;
+                        if (score > bestScore) bestScore = score;
+                        food.spawn(snake);
+                        reward = FOOD_REWARD;
+                    }
+
+                    if (gameOver) {
+                        running = false;
+                        reward = GAMEOVER_REWARD;
+                    }
+
+                    if (currentMode == GameMode.TRAIN_AI && oldStateForAI != null) {
+                        State newStateForAI = gameOver ? null : aiPlayer.getCurrentState(snake, food, gameUnitsX, gameUnitsY);
+                        aiPlayer.updateQValue(oldStateForAI, actionForAI, reward, newStateForAI, gameOver);
+                    }
                 }
-            }
-        } // end if(running) initial check
+            } // end if(running) initial check
 
-        repaint(); // Always repaint
+            repaint(); // Always repaint
 
-        if (!running) { // Game has just ended or was already not running
-            if (gameTimer.isRunning()) {
-                gameTimer.stop();
-            }
-            if (currentMode == GameMode.TRAIN_AI && snake != null) { // snake != null indicates game was actually running
-                gamesPlayedAI++;
-                recentScoresAI.add(score);
-                if (recentScoresAI.size() > AI_SCORE_WINDOW) {
-                    recentScoresAI.remove(0);
+            if (!running) { // Game has just ended or was already not running
+                if (gameTimer.isRunning()) {
+                    gameTimer.stop();
                 }
-                if (!recentScoresAI.isEmpty()) {
-                    averageScoreAI = recentScoresAI.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+                if (currentMode == GameMode.TRAIN_AI && snake != null) { // snake != null indicates game was actually running
+                    gamesPlayedAI++;
+                    recentScoresAI.add(score);
+                    if (recentScoresAI.size() > AI_SCORE_WINDOW) {
+                        recentScoresAI.remove(0);
+                    }
+                    if (!recentScoresAI.isEmpty()) {
+                        averageScoreAI = recentScoresAI.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+                    }
+                    aiPlayer.decayEpsilon();
+                    if (gamesPlayedAI % 1000 == 0) { // Save Q-table periodically
+                        aiPlayer.saveQTable();
+                        aiPlayer.exportPolicy();
+                        System.out.println("QTable saved at game: " + gamesPlayedAI + ", Epsilon: " + String.format("%.3f", aiPlayer.getEpsilon()));
+                    }
+                    startGameLogic(); // Automatically restart for next training episode
+                } else if (currentMode == GameMode.LIVE_WATCH && snake != null) {
+                    startGameLogic(); // Next game picks up the newest snapshot
                 }
-                aiPlayer.decayEpsilon();
-                if (gamesPlayedAI % 1000 == 0) { // Save Q-table periodically
-                    aiPlayer.saveQTable();
-                    System.out.println("QTable saved at game: " + gamesPlayedAI + ", Epsilon: " + String.format("%.3f", aiPlayer.getEpsilon()));
+                if (currentMode == GameMode.MANUAL && snake != null) {
+                    System.out.println(inputLatency.summary("Input-to-move latency"));
+                    System.out.println(tickJitter.summary("Tick jitter") + ", missed ticks: " + gameTimer.getMissedTicks());
                 }
-                startGameLogic(); // Automatically restart for next training episode
+                // For Manual/Watch AI, game over screen shows. MyKeyAdapter handles manual restart.
+                // Watch AI currently stops on game over.
             }
-            // For Manual/Watch AI, game over screen shows. MyKeyAdapter handles manual restart.
-            // Watch AI currently stops on game over.
         }
     }
-    
+
+    /**
+     * Applies at most one buffered key press per tick. Commands that wouldn't change the direction
+     * (repeats or reversals) are discarded without using up the tick.
+     */
+    private void applyQueuedInput() {
+        int command;
+        while ((command = inputQueue.poll()) >= 0) {
+            char direction = (char) command;
+            char current = snake.getDirection();
+            if (direction == current || Snake.isOpposite(current, direction)) {
+                continue;
+            }
+            snake.setDirection(direction);
+            pendingInputTimestamp = inputQueue.lastPolledTimestamp();
+            return;
+        }
+    }
+
     private void performAIAction(int relativeAction) { // 0: left, 1: straight, 2: right
-        char currentDir = snake.getDirection();
-        char newDir = currentDir;
-
-        switch (currentDir) {
-            case 'U':
-                if (relativeAction == 0) newDir = 'L';      // Relative Left
-                else if (relativeAction == 2) newDir = 'R'; // Relative Right
-                break;
-            case 'D':
-                if (relativeAction == 0) newDir = 'R';      // Relative Left
-                else if (relativeAction == 2) newDir = 'L'; // Relative Right
-                break;
-            case 'L':
-                if (relativeAction == 0) newDir = 'D';      // Relative Left
-                else if (relativeAction == 2) newDir = 'U'; // Relative Right
-                break;
-            case 'R':
-                if (relativeAction == 0) newDir = 'U';      // Relative Left
-                else if (relativeAction == 2) newDir = 'D'; // Relative Right
-                break;
-        }
-        snake.setDirection(newDir);
+        snake.setDirection(Snake.relativeToAbsolute(snake.getDirection(), relativeAction));
     }
 
     // --- Drawing Methods ---
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        synchronized (stateLock) { // The game loop mutates the snake and arena on the clock thread
+            paintGame(g);
+        }
+    }
+
+    private void paintGame(Graphics g) {
+        if (currentMode == GameMode.ARENA && arena != null) {
+            updateViewport(arenaFocus());
+            drawGrid(g);
+            drawArena(g);
+            drawArenaStats(g);
+            return;
+        }
 
+        updateViewport((snake != null) ? snake.getHead() : null);
         if (running) {
             drawGrid(g);
             drawFood(g);
@@ -239,34 +422,113 @@ public class GamePanel extends JPanel {
         }
     }
 
+    /**
+     * Fits the board into the panel. If cells would get smaller than MIN_UNIT_SIZE pixels,
+     * the view shows only part of the board instead, centred on the focus cell (normally the snake's head).
+     */
+    private void updateViewport(Point focus) {
+        int panelWidth = Math.max(getWidth(), 1);
+        int panelHeight = Math.max(getHeight(), 1);
+        unitSize = Math.min(panelWidth / gameUnitsX, panelHeight / gameUnitsY);
+        if (unitSize >= MIN_UNIT_SIZE) {
+            viewOriginX = 0;
+            viewOriginY = 0;
+            viewCellsX = gameUnitsX;
+            viewCellsY = gameUnitsY;
+            return;
+        }
+        unitSize = MIN_UNIT_SIZE;
+        viewCellsX = Math.min(gameUnitsX, panelWidth / unitSize);
+        viewCellsY = Math.min(gameUnitsY, panelHeight / unitSize);
+        int centerX = (focus != null) ? focus.x : gameUnitsX / 2;
+        int centerY = (focus != null) ? focus.y : gameUnitsY / 2;
+        viewOriginX = Math.max(0, Math.min(centerX - viewCellsX / 2, gameUnitsX - viewCellsX));
+        viewOriginY = Math.max(0, Math.min(centerY - viewCellsY / 2, gameUnitsY - viewCellsY));
+    }
+
+    private boolean isInView(Point p) {
+        return p.x >= viewOriginX && p.x < viewOriginX + viewCellsX
+            && p.y >= viewOriginY && p.y < viewOriginY + viewCellsY;
+    }
+
     public void drawGrid(Graphics g) {
+        if (unitSize < MIN_GRID_UNIT_SIZE) {
+            return;
+        }
         g.setColor(Color.DARK_GRAY);
-        for (int i = 0; i <= GAME_UNITS_X; i++) {
-            g.drawLine(i * UNIT_SIZE, 0, i * UNIT_SIZE, SCREEN_HEIGHT);
+        int viewWidth = viewCellsX * unitSize;
+        int viewHeight = viewCellsY * unitSize;
+        for (int i = 0; i <= viewCellsX; i++) {
+            g.drawLine(i * unitSize, 0, i * unitSize, viewHeight);
         }
-        for (int i = 0; i <= GAME_UNITS_Y; i++) {
-            g.drawLine(0, i * UNIT_SIZE, SCREEN_WIDTH, i * UNIT_SIZE);
+        for (int i = 0; i <= viewCellsY; i++) {
+            g.drawLine(0, i * unitSize, viewWidth, i * unitSize);
         }
     }
 
     public void drawFood(Graphics g) {
-        if (food != null && food.getPosition() != null) {
+        if (food != null && food.getPosition() != null && isInView(food.getPosition())) {
             g.setColor(Color.red);
-            g.fillOval(food.getPosition().x * UNIT_SIZE, food.getPosition().y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+            g.fillOval((food.getPosition().x - viewOriginX) * unitSize, (food.getPosition().y - viewOriginY) * unitSize, unitSize, unitSize);
         }
     }
 
     public void drawSnake(Graphics g) {
         if (snake != null && snake.getBody() != null) {
-            List<Point> body = snake.getBody();
-            for (int i = 0; i < body.size(); i++) {
-                Point segment = body.get(i);
-                g.setColor((i == 0) ? Color.green : new Color(45, 180, 0));
-                g.fillRect(segment.x * UNIT_SIZE, segment.y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+            Color bodyColor = new Color(45, 180, 0);
+            boolean isHead = true;
+            for (Point segment : snake.getBody()) {
+                if (isInView(segment)) {
+                    g.setColor(isHead ? Color.green : bodyColor);
+                    g.fillRect((segment.x - viewOriginX) * unitSize, (segment.y - viewOriginY) * unitSize, unitSize, unitSize);
+                }
+                isHead = false;
+            }
+        }
+    }
+
+    /**
+     * The arena view follows the first live snake.
+     */
+    private Point arenaFocus() {
+        for (int i = 0; i < arena.getSnakeCount(); i++) {
+            if (arena.isAlive(i)) return arena.getSnake(i).getHead();
+        }
+        return null;
+    }
+
+    public void drawArena(Graphics g) {
+        g.setColor(Color.red);
+        Food[] foods = arena.getFoods();
+        for (int i = 0; i < foods.length; i++) {
+            Point p = foods[i].getPosition();
+            if (arena.isFoodPlaced(i) && isInView(p)) {
+                g.fillOval((p.x - viewOriginX) * unitSize, (p.y - viewOriginY) * unitSize, unitSize, unitSize);
+            }
+        }
+        for (int i = 0; i < arena.getSnakeCount(); i++) {
+            if (!arena.isAlive(i)) continue;
+            boolean isHead = true;
+            for (Point segment : arena.getSnake(i).getBody()) {
+                if (isInView(segment)) {
+                    g.setColor(isHead ? Color.white : arenaColors[i]);
+                    g.fillRect((segment.x - viewOriginX) * unitSize, (segment.y - viewOriginY) * unitSize, unitSize, unitSize);
+                }
+                isHead = false;
             }
         }
     }
 
+    public void drawArenaStats(Graphics g) {
+        g.setColor(Color.white);
+        g.setFont(new Font("SansSerif", Font.BOLD, 16));
+        String aliveText = "Alive: " + arena.getAliveCount() + "/" + arena.getSnakeCount();
+        g.drawString(aliveText, 10, g.getFont().getSize());
+        String bestText = "Best: " + arena.getBestScore() + "  Eaten: " + arena.getFoodEaten() + "  Deaths: " + arena.getDeaths();
+        FontMetrics metrics = getFontMetrics(g.getFont());
+        g.drawString(bestText, SCREEN_WIDTH - metrics.stringWidth(bestText) - 10, g.getFont().getSize());
+    }
+
     public void drawScores(Graphics g) {
         g.setColor(Color.white);
         g.setFont(new Font("SansSerif", Font.BOLD, 20));
@@ -276,6 +538,25 @@ public class GamePanel extends JPanel {
         String bestScoreText = "Best: " + this.bestScore;
         g.drawString(bestScoreText, SCREEN_WIDTH - metrics.stringWidth(bestScoreText) - 10, g.getFont().getSize());
 
+        if (currentMode == GameMode.MANUAL && inputLatency.getCount() > 0) {
+            g.setFont(new Font("SansSerif", Font.PLAIN, 12));
+            g.setColor(Color.LIGHT_GRAY);
+            String latencyText = String.format("Input %.2f ms (p99 %.2f)  Jitter %.2f ms (p99 %.2f)",
+                    inputLatency.getMeanMillis(), inputLatency.getPercentileMillis(99),
+                    tickJitter.getMeanMillis(), tickJitter.getPercentileMillis(99));
+            g.drawString(latencyText, 10, SCREEN_HEIGHT - 10);
+        }
+
+        if (currentMode == GameMode.LIVE_WATCH && liveSnapshot != null) {
+            g.setFont(new Font("SansSerif", Font.BOLD, 16));
+            g.setColor(Color.CYAN);
+            String snapshotText = "Policy v" + liveSnapshot.version() + " (" + liveSnapshot.gamesTrained() + " games)";
+            g.drawString(snapshotText, 10, SCREEN_HEIGHT - 50);
+            String trainerText = String.format("Trainer: %d games, Avg %.2f, Epsilon %.3f", liveTrainer.getGamesPlayed(),
+                    liveTrainer.getAverageScore(), liveTrainer.getEpsilon());
+            g.drawString(trainerText, 10, SCREEN_HEIGHT - 30);
+        }
+
         if (currentMode == GameMode.TRAIN_AI) {
             g.setFont(new Font("SansSerif", Font.BOLD, 16));
             g.setColor(Color.CYAN);
@@ -319,12 +600,14 @@ public class GamePanel extends JPanel {
             int keyCode = e.getKeyCode();
 
             if (running) {
-                if (currentMode == GameMode.MANUAL && snake != null) {
+                if (currentMode == GameMode.MANUAL) {
+                    // Only buffered here; the game loop applies one command per tick
+                    long now = System.nanoTime();
                     switch (keyCode) {
-                        case KeyEvent.VK_LEFT:  if (snake.getDirection() != 'R') snake.setDirection('L'); break;
-                        case KeyEvent.VK_RIGHT: if (snake.getDirection() != 'L') snake.setDirection('R'); break;
-                        case KeyEvent.VK_UP:    if (snake.getDirection() != 'D') snake.setDirection('U'); break;
-                        case KeyEvent.VK_DOWN:  if (snake.getDirection() != 'U') snake.setDirection('D'); break;
+                        case KeyEvent.VK_LEFT:  inputQueue.offer('L', now); break;
+                        case KeyEvent.VK_RIGHT: inputQueue.offer('R', now); break;
+                        case KeyEvent.VK_UP:    inputQueue.offer('U', now); break;
+                        case KeyEvent.VK_DOWN:  inputQueue.offer('D', now); break;
                     }
                 }
             } else { // If game is not running
@@ -0,0 +1,90 @@
+import java.util.Random;
+
+/**
+ * A single Snake game without any Swing dependencies, stepped explicitly by the caller.
+ * Mirrors the rules of GamePanel's game loop so policies can be evaluated and benchmarked off-screen.
+ */
+public class HeadlessGame {
+
+    private final BoardConfig config;
+    private final int boardWidth;
+    private final int boardHeight;
+
+    private Snake snake;
+    private Food food;
+    private int score = 0;
+    private long steps = 0;
+    private long stepsSinceFood = 0;
+    private boolean running = false;
+
+    public HeadlessGame(BoardConfig config, long seed) {
+        this.config = config;
+        this.boardWidth = config.width();
+        this.boardHeight = config.height();
+        // The snake and food are created once and reused, so restarting doesn't reallocate per-board state
+        this.snake = new Snake(config.startX(), config.startY(), config.initialLength(), config.startDirection(), boardWidth, boardHeight);
+        this.food = new Food(boardWidth, boardHeight, new Random(seed));
+        reset();
+    }
+
+    public void reset() {
+        snake.reset(config.startX(), config.startY(), config.initialLength(), config.startDirection());
+        food.spawn(snake);
+        score = 0;
+        steps = 0;
+        stepsSinceFood = 0;
+        running = true;
+    }
+
+    /**
+     * Applies one relative action and advances the game by one tick.
+     * @param relativeAction 0 (turn left), 1 (go straight), 2 (turn right).
+     * @return The reward for this tick, using the same values as GamePanel.
+     */
+    public double step(int relativeAction) {
+        if (!running) {
+            return 0.0;
+        }
+        snake.setDirection(Snake.relativeToAbsolute(snake.getDirection(), relativeAction));
+        snake.move();
+        steps++;
+        stepsSinceFood++;
+
+        if (snake.checkCollisionWithWall() || snake.checkCollisionWithSelf()) {
+            running = false;
+            return GamePanel.GAMEOVER_REWARD;
+        }
+        if (snake.getHead().equals(food.getPosition())) {
+            snake.grow();
+            score++;
+            stepsSinceFood = 0;
+            food.spawn(snake);
+            return GamePanel.FOOD_REWARD;
+        }
+        return GamePanel.STEP_REWARD;
+    }
+
+    /**
+     * Plays one full game with the given policy.
+     * @param maxStepsWithoutFood Ends the game early once the snake goes this long without eating (guards against loops).
+     * @return The final score.
+     */
+    public int play(SnakePolicy policy, long maxStepsWithoutFood) {
+        reset();
+        while (running && stepsSinceFood < maxStepsWithoutFood) {
+            step(policy.chooseAction(snake, food, boardWidth, boardHeight));
+        }
+        running = false;
+        return score;
+    }
+
+    public Snake getSnake() { return snake; }
+    public Food getFood() { return food; }
+    public BoardConfig getConfig() { return config; }
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+    public int getScore() { return score; }
+    public long getSteps() { return steps; }
+    public long getStepsSinceFood() { return stepsSinceFood; }
+    public boolean isRunning() { return running; }
+}
@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, bounded single-producer/single-consumer queue of direction commands.
+ *
+ * The key listener (producer, on the Swing event thread) offers commands with the time they arrived;
+ * the game loop (consumer, on the game clock thread) takes at most one effective command per tick,
+ * so quick key combinations within one tick are played out on consecutive ticks instead of overwriting
+ * each other. When the queue is full, new commands are dropped.
+ */
+public class InputQueue {
+    private final char[] directions;
+    private final long[] timestamps;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next slot to read, written only by the consumer
+    private final AtomicLong tail = new AtomicLong(); // Next slot to write, written only by the producer
+    private long polledTimestamp;                     // Consumer-side only
+
+    /**
+     * @param capacity Maximum number of buffered commands; rounded up to a power of two.
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.directions = new char[size];
+        this.timestamps = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side. Consecutive duplicates are dropped, since repeating a direction never changes anything.
+     * @return False if the command was dropped.
+     */
+    public boolean offer(char direction, long timestampNanos) {
+        long t = tail.get();
+        long h = head.get();
+        if (t - h > mask) {
+            return false; // Full
+        }
+        if (t > h && directions[(int) (t - 1) & mask] == direction) {
+            return false; // Same as the last pending command
+        }
+        directions[(int) t & mask] = direction;
+        timestamps[(int) t & mask] = timestampNanos;
+        tail.lazySet(t + 1); // Publishes the slot contents to the consumer
+        return true;
+    }
+
+    /**
+     * Consumer side.
+     * @return The next direction, or -1 if the queue is empty. Its timestamp is then available from lastPolledTimestamp().
+     */
+    public int poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return -1;
+        }
+        char direction = directions[(int) h & mask];
+        polledTimestamp = timestamps[(int) h & mask];
+        head.lazySet(h + 1); // Frees the slot for the producer
+        return direction;
+    }
+
+    /**
+     * Consumer side: the arrival time (System.nanoTime()) of the command last returned by poll().
+     */
+    public long lastPolledTimestamp() {
+        return polledTimestamp;
+    }
+
+    /**
+     * Consumer side: discards all pending commands, e.g. when a new game starts.
+     */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in nanoseconds: mean and max over everything recorded since the last reset,
+ * percentiles over the most recent samples. Not thread-safe; callers guard it with their own lock.
+ */
+public class LatencyStats {
+    private final long[] recent; // Ring buffer of the latest samples, for percentiles
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    public LatencyStats(int window) {
+        this.recent = new long[window];
+    }
+
+    public void record(long nanos) {
+        recent[(int) (count % recent.length)] = nanos;
+        count++;
+        total += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public void reset() {
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return count == 0 ? 0.0 : total / 1e6 / count;
+    }
+
+    public double getMaxMillis() {
+        return max / 1e6;
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return The percentile over the most recent samples, in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+        int n = (int) Math.min(count, recent.length);
+        if (n == 0) return 0.0;
+        long[] sorted = Arrays.copyOf(recent, n);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(n - 1, Math.floor(n * percentile / 100.0))] / 1e6;
+    }
+
+    public String summary(String name) {
+        return String.format("%s: mean %.3f ms, p99 %.3f ms, max %.3f ms (%d samples)",
+                name, getMeanMillis(), getPercentileMillis(99), getMaxMillis(), count);
+    }
+}
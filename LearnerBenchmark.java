@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+/**
+ * Headless comparison of the tabular AIPlayer and the linear function-approximation LinearQPlayer.
+ * Both are trained from scratch with the same seed and episode budget, then scored greedily on fresh games.
+ * Reports training throughput (steps and Q-value updates per second; the linear player fits a whole
+ * replay minibatch per step) and the greedy score.
+ *
+ * Usage: java LearnerBenchmark [episodes] [evalGames] [boardSize...]
+ */
+public class LearnerBenchmark {
+
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int episodes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int evalGames = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int[] sizes = args.length > 2
+                ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{16, 24, 32};
+
+        System.out.printf("%-8s %-8s %9s %10s %12s %14s %10s %10s%n",
+                "board", "learner", "episodes", "train(s)", "steps/s", "updates/s", "avgScore", "maxScore");
+        for (int size : sizes) {
+            BoardConfig config = BoardConfig.square(size);
+            runTabular(config, episodes, evalGames);
+            runLinear(config, episodes, evalGames);
+        }
+    }
+
+    private static void runTabular(BoardConfig config, int episodes, int evalGames) {
+        AIPlayer player = AIPlayer.untrained(SEED);
+        HeadlessGame game = new HeadlessGame(config, SEED);
+        long steps = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < episodes; i++) {
+            player.trainEpisode(game, config.cellCount());
+            player.decayEpsilon();
+            steps += game.getSteps();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(config, "tabular", episodes, seconds, steps, steps, player, evalGames);
+    }
+
+    private static void runLinear(BoardConfig config, int episodes, int evalGames) {
+        LinearQPlayer player = new LinearQPlayer(SEED);
+        HeadlessGame game = new HeadlessGame(config, SEED);
+        long steps = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < episodes; i++) {
+            player.trainEpisode(game, config.cellCount());
+            player.decayEpsilon();
+            steps += game.getSteps();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(config, "linear", episodes, seconds, steps, player.getUpdateCount(), player, evalGames);
+    }
+
+    private static void report(BoardConfig config, String name, int episodes, double seconds, long steps, long updates,
+                               SnakePolicy policy, int evalGames) {
+        HeadlessGame game = new HeadlessGame(config, SEED + 1); // Food sequence not seen in training
+        long total = 0;
+        int best = 0;
+        for (int i = 0; i < evalGames; i++) {
+            int score = game.play(policy, config.cellCount());
+            total += score;
+            best = Math.max(best, score);
+        }
+        System.out.printf("%-8s %-8s %9d %10.2f %12.0f %14.0f %10.2f %10d%n",
+                config.width() + "x" + config.height(), name, episodes, seconds,
+                steps / seconds, updates / seconds, (double) total / evalGames, best);
+    }
+}
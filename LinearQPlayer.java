@@ -0,0 +1,350 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Q-learning player with a linear function approximator instead of a table, so richer board features
+ * don't multiply the number of parameters.
+ *
+ * Q(s, a) = w . phi(s, a), where phi describes the cell the head would move to with action a:
+ * whether it is deadly, food offsets and distance, wall distance, ray-cast distances to the nearest
+ * obstacle in the three directions the snake could go next, and a bounded flood-fill estimate of the
+ * free area left. All three actions share one weight vector, so what is learned about one cell transfers
+ * to every other cell and heading.
+ *
+ * Training uses experience replay: each step stores its transition and then fits a minibatch of
+ * BATCH_SIZE stored transitions. The hot loops are written for HotSpot's auto-vectorizer (JDK 17 needs
+ * --add-modules for jdk.incubator.vector, and there is no build configuration to pass it):
+ * - Batched evaluation keeps minibatch features feature-major (one row of BATCH_SIZE values per feature),
+ *   so q[r] += w[f] * x[f][r] is an element-wise multiply-add over the batch instead of a dot-product reduction.
+ * - The gradient step adds each transition's feature row to the weights (w[f] += c * x[r][f]),
+ *   again element-wise over FEATURE_COUNT contiguous floats.
+ * FEATURE_COUNT is padded to a multiple of the vector width with always-zero features.
+ */
+public class LinearQPlayer implements SnakePolicy {
+
+    // --- Learning Constants ---
+    private static final float LEARNING_RATE = 0.01f;
+    private static final float GAMMA = 0.9f; // Same discount as AIPlayer
+    private static final float REWARD_SCALE = 1.0f / 100.0f; // Keeps GamePanel's rewards near the feature range
+    private static final double MIN_EPSILON = 0.01;
+    private static final double EPSILON_DECAY_RATE = 0.995;
+    static final int BATCH_SIZE = 32;
+    private static final int REPLAY_CAPACITY = 1 << 15;
+
+    // --- Features ---
+    static final int FEATURE_COUNT = 16;
+    private static final int F_BIAS = 0;
+    private static final int F_DEADLY = 1;
+    private static final int F_EATS = 2;
+    private static final int F_CLOSER = 3;          // Moving here reduces the distance to the food
+    private static final int F_FOOD_DISTANCE = 4;   // Manhattan distance to the food, normalised by the board
+    private static final int F_FOOD_AHEAD = 5;      // Food offset along the new heading, normalised
+    private static final int F_FOOD_SIDE = 6;       // Food offset across the new heading (positive = right), normalised
+    private static final int F_WALL_DISTANCE = 7;   // Distance to the nearest wall, normalised
+    private static final int F_RAY_AHEAD = 8;       // Inverse distance to the nearest obstacle, per ray
+    private static final int F_RAY_LEFT = 9;
+    private static final int F_RAY_RIGHT = 10;
+    private static final int F_FREE_AREA = 11;      // Reachable free cells, capped, as a fraction of the cap
+    private static final int F_TRAPPED = 12;        // Reachable free cells fewer than the snake's length
+
+    private final float[] weights = new float[FEATURE_COUNT];
+    private final Random random;
+    private double epsilon = 1.0;
+
+    // --- Replay Buffer (row-major: one FEATURE_COUNT row per stored vector) ---
+    private final float[] replayFeatures = new float[REPLAY_CAPACITY * FEATURE_COUNT];         // phi(s, a) taken
+    private final float[] replayNextFeatures = new float[REPLAY_CAPACITY * 3 * FEATURE_COUNT]; // phi(s', a') for all a'
+    private final float[] replayRewards = new float[REPLAY_CAPACITY];
+    private final boolean[] replayTerminal = new boolean[REPLAY_CAPACITY];
+    private int replaySize = 0;
+    private int replayNext = 0;
+
+    // --- Minibatch Scratch (feature-major) ---
+    private final int[] batchIndex = new int[BATCH_SIZE];
+    private final float[] batchFeatures = new float[FEATURE_COUNT * BATCH_SIZE];
+    private final float[] batchNextFeatures = new float[3 * FEATURE_COUNT * BATCH_SIZE];
+    private final float[] batchQ = new float[BATCH_SIZE];
+    private final float[] batchNextQ = new float[BATCH_SIZE];
+    private final float[] batchNextMax = new float[BATCH_SIZE];
+    private final float[] batchError = new float[BATCH_SIZE];
+    private long updates = 0;
+
+    // --- Feature Extraction Scratch ---
+    private final float[] candidates = new float[3 * FEATURE_COUNT];
+    private final float[] nextCandidates = new float[3 * FEATURE_COUNT];
+    private int[] floodStamp = new int[0];
+    private int[] floodQueue = new int[0];
+    private int currentStamp = 0;
+
+    public LinearQPlayer(long seed) {
+        this.random = new Random(seed);
+        weights[F_DEADLY] = -1.0f; // Start out afraid of walls and bodies; everything else is learned
+    }
+
+    // --- Feature Extraction ---
+
+    /**
+     * Writes phi(s, a) for all three relative actions into out (row-major, FEATURE_COUNT floats per action).
+     */
+    public void extractFeatures(Snake snake, Food food, int boardWidth, int boardHeight, float[] out) {
+        Arrays.fill(out, 0.0f);
+        Point head = snake.getHead();
+        Point foodPosition = food.getPosition();
+        int length = snake.getBody().size();
+        float diagonal = boardWidth + boardHeight;
+        int headFoodDistance = foodPosition == null ? 0 : Math.abs(foodPosition.x - head.x) + Math.abs(foodPosition.y - head.y);
+
+        for (int action = 0; action < 3; action++) {
+            int row = action * FEATURE_COUNT;
+            char heading = Snake.relativeToAbsolute(snake.getDirection(), action);
+            int x = head.x + dx(heading);
+            int y = head.y + dy(heading);
+            out[row + F_BIAS] = 1.0f;
+            if (isBlocked(snake, x, y, boardWidth, boardHeight)) {
+                out[row + F_DEADLY] = 1.0f;
+                out[row + F_TRAPPED] = 1.0f;
+                continue; // The other features describe a cell the snake never gets to use
+            }
+
+            if (foodPosition != null) {
+                int foodX = foodPosition.x - x;
+                int foodY = foodPosition.y - y;
+                int distance = Math.abs(foodX) + Math.abs(foodY);
+                out[row + F_EATS] = distance == 0 ? 1.0f : 0.0f;
+                out[row + F_CLOSER] = distance < headFoodDistance ? 1.0f : 0.0f;
+                out[row + F_FOOD_DISTANCE] = distance / diagonal;
+                // Offsets in the snake's frame after the move: ahead along heading, side towards its right
+                out[row + F_FOOD_AHEAD] = (foodX * dx(heading) + foodY * dy(heading)) / diagonal;
+                out[row + F_FOOD_SIDE] = (foodY * dx(heading) - foodX * dy(heading)) / diagonal;
+            }
+            int wall = Math.min(Math.min(x, boardWidth - 1 - x), Math.min(y, boardHeight - 1 - y));
+            out[row + F_WALL_DISTANCE] = wall / (float) Math.max(1, Math.min(boardWidth, boardHeight) / 2);
+            out[row + F_RAY_AHEAD] = 1.0f / ray(snake, x, y, heading, boardWidth, boardHeight);
+            out[row + F_RAY_LEFT] = 1.0f / ray(snake, x, y, Snake.relativeToAbsolute(heading, 0), boardWidth, boardHeight);
+            out[row + F_RAY_RIGHT] = 1.0f / ray(snake, x, y, Snake.relativeToAbsolute(heading, 2), boardWidth, boardHeight);
+
+            int cap = 2 * length + 8;
+            int area = freeArea(snake, x, y, cap, boardWidth, boardHeight);
+            out[row + F_FREE_AREA] = area / (float) cap;
+            out[row + F_TRAPPED] = area < length ? 1.0f : 0.0f;
+        }
+    }
+
+    private static int dx(char direction) {
+        return direction == 'L' ? -1 : direction == 'R' ? 1 : 0;
+    }
+
+    private static int dy(char direction) {
+        return direction == 'U' ? -1 : direction == 'D' ? 1 : 0;
+    }
+
+    private static boolean isBlocked(Snake snake, int x, int y, int boardWidth, int boardHeight) {
+        return x < 0 || x >= boardWidth || y < 0 || y >= boardHeight || snake.isOccupied(x, y);
+    }
+
+    /**
+     * @return Steps from (x, y) in the given direction until the first wall or body cell (at least 1).
+     */
+    private static int ray(Snake snake, int x, int y, char direction, int boardWidth, int boardHeight) {
+        int stepX = dx(direction);
+        int stepY = dy(direction);
+        int distance = 1;
+        x += stepX;
+        y += stepY;
+        while (!isBlocked(snake, x, y, boardWidth, boardHeight)) {
+            distance++;
+            x += stepX;
+            y += stepY;
+        }
+        return distance;
+    }
+
+    /**
+     * Breadth-first count of free cells reachable from (x, y), stopping at cap.
+     */
+    private int freeArea(Snake snake, int startX, int startY, int cap, int boardWidth, int boardHeight) {
+        int cells = boardWidth * boardHeight;
+        if (floodStamp.length != cells) {
+            floodStamp = new int[cells];
+            floodQueue = new int[cells];
+            currentStamp = 0;
+        }
+        currentStamp++;
+        int head = 0;
+        int tail = 0;
+        floodQueue[tail++] = startY * boardWidth + startX;
+        floodStamp[startY * boardWidth + startX] = currentStamp;
+        while (head < tail && tail < cap) {
+            int cell = floodQueue[head++];
+            int x = cell % boardWidth;
+            int y = cell / boardWidth;
+            tail = visit(snake, x - 1, y, boardWidth, boardHeight, tail);
+            tail = visit(snake, x + 1, y, boardWidth, boardHeight, tail);
+            tail = visit(snake, x, y - 1, boardWidth, boardHeight, tail);
+            tail = visit(snake, x, y + 1, boardWidth, boardHeight, tail);
+        }
+        return Math.min(tail, cap);
+    }
+
+    private int visit(Snake snake, int x, int y, int boardWidth, int boardHeight, int tail) {
+        if (isBlocked(snake, x, y, boardWidth, boardHeight)) return tail;
+        int cell = y * boardWidth + x;
+        if (floodStamp[cell] == currentStamp) return tail;
+        floodStamp[cell] = currentStamp;
+        floodQueue[tail] = cell;
+        return tail + 1;
+    }
+
+    // --- Evaluation ---
+
+    /**
+     * Q-value of one feature row.
+     */
+    private float q(float[] features, int offset) {
+        float sum = 0.0f;
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            sum += weights[f] * features[offset + f];
+        }
+        return sum;
+    }
+
+    private int greedyAction(float[] features) {
+        int best = 0;
+        float bestQ = q(features, 0);
+        for (int action = 1; action < 3; action++) {
+            float value = q(features, action * FEATURE_COUNT);
+            if (value > bestQ) {
+                bestQ = value;
+                best = action;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Batched evaluation: out[r] = w . x[., r] for `rows` feature-major columns starting at offset
+     * (feature f of row r at offset + f * stride + r).
+     */
+    void evaluateBatch(float[] features, int offset, int stride, int rows, float[] out) {
+        Arrays.fill(out, 0, rows, 0.0f);
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            float weight = weights[f];
+            int base = offset + f * stride;
+            for (int r = 0; r < rows; r++) { // Element-wise over the batch: vectorized
+                out[r] += weight * features[base + r];
+            }
+        }
+    }
+
+    @Override
+    public int chooseAction(Snake snake, Food food, int boardWidth, int boardHeight) {
+        extractFeatures(snake, food, boardWidth, boardHeight, candidates);
+        return greedyAction(candidates);
+    }
+
+    // --- Training ---
+
+    /**
+     * Plays one epsilon-greedy training game on a headless board, fitting a replay minibatch after every step.
+     * Mirrors AIPlayer.trainEpisode(); epsilon is not decayed here.
+     * @return The episode's score.
+     */
+    public int trainEpisode(HeadlessGame game, long maxStepsWithoutFood) {
+        game.reset();
+        int boardWidth = game.getBoardWidth();
+        int boardHeight = game.getBoardHeight();
+        extractFeatures(game.getSnake(), game.getFood(), boardWidth, boardHeight, candidates);
+        while (game.isRunning() && game.getStepsSinceFood() < maxStepsWithoutFood) {
+            int action = random.nextDouble() < epsilon ? random.nextInt(3) : greedyAction(candidates);
+            float reward = (float) game.step(action) * REWARD_SCALE;
+            boolean gameOver = !game.isRunning();
+            if (!gameOver) {
+                extractFeatures(game.getSnake(), game.getFood(), boardWidth, boardHeight, nextCandidates);
+            }
+            remember(candidates, action, reward, nextCandidates, gameOver);
+            trainBatch();
+            System.arraycopy(nextCandidates, 0, candidates, 0, candidates.length);
+        }
+        return game.getScore();
+    }
+
+    private void remember(float[] features, int action, float reward, float[] nextFeatures, boolean terminal) {
+        int slot = replayNext;
+        System.arraycopy(features, action * FEATURE_COUNT, replayFeatures, slot * FEATURE_COUNT, FEATURE_COUNT);
+        if (!terminal) {
+            System.arraycopy(nextFeatures, 0, replayNextFeatures, slot * 3 * FEATURE_COUNT, 3 * FEATURE_COUNT);
+        }
+        replayRewards[slot] = reward;
+        replayTerminal[slot] = terminal;
+        replayNext = (replayNext + 1) % REPLAY_CAPACITY;
+        replaySize = Math.min(replaySize + 1, REPLAY_CAPACITY);
+    }
+
+    /**
+     * One semi-gradient Q-learning step on a random minibatch of stored transitions:
+     * w += lr / B * sum_r (target_r - q_r) * phi_r, with target_r = reward_r + gamma * max_a' q(s'_r, a').
+     */
+    private void trainBatch() {
+        if (replaySize < BATCH_SIZE) return;
+
+        // Gather the minibatch feature-major
+        for (int r = 0; r < BATCH_SIZE; r++) {
+            int slot = random.nextInt(replaySize);
+            batchIndex[r] = slot;
+            int source = slot * FEATURE_COUNT;
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                batchFeatures[f * BATCH_SIZE + r] = replayFeatures[source + f];
+            }
+            int nextSource = slot * 3 * FEATURE_COUNT;
+            for (int i = 0; i < 3 * FEATURE_COUNT; i++) {
+                batchNextFeatures[i * BATCH_SIZE + r] = replayNextFeatures[nextSource + i];
+            }
+        }
+
+        evaluateBatch(batchFeatures, 0, BATCH_SIZE, BATCH_SIZE, batchQ);
+        Arrays.fill(batchNextMax, Float.NEGATIVE_INFINITY);
+        for (int action = 0; action < 3; action++) {
+            evaluateBatch(batchNextFeatures, action * FEATURE_COUNT * BATCH_SIZE, BATCH_SIZE, BATCH_SIZE, batchNextQ);
+            for (int r = 0; r < BATCH_SIZE; r++) {
+                batchNextMax[r] = Math.max(batchNextMax[r], batchNextQ[r]);
+            }
+        }
+        float step = LEARNING_RATE / BATCH_SIZE;
+        for (int r = 0; r < BATCH_SIZE; r++) {
+            int slot = batchIndex[r];
+            float target = replayRewards[slot] + (replayTerminal[slot] ? 0.0f : GAMMA * batchNextMax[r]);
+            batchError[r] = step * (target - batchQ[r]);
+        }
+
+        // Gradient step, one contiguous feature row per transition
+        for (int r = 0; r < BATCH_SIZE; r++) {
+            float scale = batchError[r];
+            int source = batchIndex[r] * FEATURE_COUNT;
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                weights[f] += scale * replayFeatures[source + f];
+            }
+        }
+        updates += BATCH_SIZE;
+    }
+
+    // --- Epsilon Management ---
+    public void decayEpsilon() {
+        epsilon = Math.max(MIN_EPSILON, epsilon * EPSILON_DECAY_RATE);
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * @return Number of transitions fitted so far (BATCH_SIZE per training step).
+     */
+    public long getUpdateCount() {
+        return updates;
+    }
+
+    public float[] getWeights() {
+        return weights.clone();
+    }
+}
@@ -0,0 +1,394 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end learning benchmark: trains AIPlayer headless from an empty Q-table with fixed seeds and
+ * measures how long it takes to reach a target rolling average score, for several board sizes.
+ *
+ * Each run reports steps and episodes to the target, wall-clock time, plus peak heap and allocation rate of
+ * the training thread. Episodes and steps are deterministic for a given seed, so any change in them is a
+ * change in learning behaviour, and they are compared as hard gates.
+ *
+ * Runs to the target take only a fraction of a second, which is too short to time reliably, so throughput is
+ * measured separately: per board, a fixed workload of --timed-steps training steps (first seed, from scratch)
+ * is timed --repeat times and the min, median and max are reported. Every repetition runs in a freshly forked
+ * JVM (same flags and classpath), and the repetitions are interleaved across boards, so one JIT, GC or CPU
+ * frequency phase can't shift all the repetitions of a board together.
+ * A time regression needs the median to be slower by more than the tolerance, and even the fastest new repetition
+ * to be slower than the old median plus the tolerance plus NOISE_SPREADS times the noise. The noise is the larger
+ * median-to-min gap of the two reports; the max is left out because a single run hit by another process would
+ * otherwise widen the margin enough to hide a real slowdown. Anything less is only a warning. Wall-clock time on
+ * a shared machine is still noisy, so treat a time regression as a reason to re-run, not as proof.
+ * Results are written as JSON (one run per line) so reports from two commits can be compared.
+ *
+ * Usage:
+ *   java MacroBenchmark [--boards 16:14,24:18,32:20] [--seeds 1,2,3] [--max-episodes 20000]
+ *                       [--timed-steps 5000000] [--repeat 5] [--out macro_benchmark.json] [--label text]
+ *   java MacroBenchmark --compare baseline.json current.json [--tolerance 0.15]
+ *     Exits with status 1 if any run regressed beyond the tolerance.
+ */
+public class MacroBenchmark {
+
+    private static final int SCORE_WINDOW = 100; // Same rolling window as GamePanel's training stats
+    private static final String DEFAULT_BOARDS = "16:14,24:18,32:20"; // board size : target average score
+    private static final String DEFAULT_SEEDS = "1,2,3";
+    private static final int DEFAULT_MAX_EPISODES = 20000;
+    private static final long DEFAULT_TIMED_STEPS = 5_000_000; // About a second per repetition
+    private static final int DEFAULT_REPEAT = 5;
+    private static final double DEFAULT_TOLERANCE = 0.15;
+    private static final double NOISE_SPREADS = 2.0; // Extra margin for a time regression, in median-to-min gaps
+
+    /**
+     * Outcome of one (board, seed) training run.
+     */
+    record Result(int board, long seed, double target, boolean reached, long episodes, long steps,
+                  double seconds, double peakHeapMb, double allocMbPerSec, double allocBytesPerStep) {
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"board\": %d, \"seed\": %d, \"target\": %.2f, \"reached\": %b, \"episodes\": %d, \"steps\": %d, "
+                            + "\"seconds\": %.4f, \"peakHeapMb\": %.2f, \"allocMbPerSec\": %.2f, \"allocBytesPerStep\": %.2f}",
+                    board, seed, target, reached, episodes, steps, seconds, peakHeapMb, allocMbPerSec, allocBytesPerStep);
+        }
+    }
+
+    /**
+     * Wall-clock time of a fixed training workload on one board, over several repetitions.
+     */
+    record Timing(int board, long seed, long steps, int repeat, double minSeconds, double medianSeconds, double maxSeconds) {
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"timedBoard\": %d, \"seed\": %d, \"steps\": %d, \"repeat\": %d, "
+                            + "\"minSeconds\": %.4f, \"medianSeconds\": %.4f, \"maxSeconds\": %.4f}",
+                    board, seed, steps, repeat, minSeconds, medianSeconds, maxSeconds);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("time-board")) { // Forked by time(): one timed repetition, printed for the parent
+            int board = Integer.parseInt(options.get("time-board"));
+            long seed = Long.parseLong(options.get("seed"));
+            long steps = Long.parseLong(options.get("timed-steps"));
+            trainSteps(board, seed, steps / 5); // Warm-up, so the timed run measures compiled code
+            System.out.println(trainSteps(board, seed, steps));
+            return;
+        }
+        if (options.containsKey("compare")) {
+            String[] files = options.get("compare").split(",");
+            double tolerance = Double.parseDouble(options.getOrDefault("tolerance", String.valueOf(DEFAULT_TOLERANCE)));
+            System.exit(compare(Paths.get(files[0]), Paths.get(files[1]), tolerance) ? 0 : 1);
+        }
+
+        int maxEpisodes = Integer.parseInt(options.getOrDefault("max-episodes", String.valueOf(DEFAULT_MAX_EPISODES)));
+        Path out = Paths.get(options.getOrDefault("out", "macro_benchmark.json"));
+        String label = options.getOrDefault("label", "");
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", String.valueOf(DEFAULT_REPEAT)));
+        long timedSteps = Long.parseLong(options.getOrDefault("timed-steps", String.valueOf(DEFAULT_TIMED_STEPS)));
+        String[] boardSpecs = options.getOrDefault("boards", DEFAULT_BOARDS).split(",");
+        String[] seeds = options.getOrDefault("seeds", DEFAULT_SEEDS).split(",");
+
+        train(24, 0L, 18.0, maxEpisodes); // Warm-up so the first measured run isn't dominated by JIT compilation
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-6s %-5s %7s %8s %9s %12s %9s %10s %12s%n",
+                "board", "seed", "target", "reached", "episodes", "steps", "seconds", "peakMB", "allocMB/s");
+        for (String boardSpec : boardSpecs) {
+            String[] parts = boardSpec.split(":");
+            int board = Integer.parseInt(parts[0]);
+            double target = Double.parseDouble(parts[1]);
+            for (String seedText : seeds) {
+                Result r = train(board, Long.parseLong(seedText), target, maxEpisodes);
+                results.add(r);
+                System.out.printf(Locale.ROOT, "%-6d %-5d %7.1f %8b %9d %12d %9.3f %10.1f %12.1f%n", r.board(), r.seed(),
+                        r.target(), r.reached(), r.episodes(), r.steps(), r.seconds(), r.peakHeapMb(), r.allocMbPerSec());
+            }
+        }
+
+        int[] boards = Arrays.stream(boardSpecs).mapToInt(spec -> Integer.parseInt(spec.split(":")[0])).toArray();
+        List<Timing> timings = time(boards, Long.parseLong(seeds[0]), timedSteps, repeat);
+        System.out.printf("%n%-6s %-5s %10s %10s %10s %10s%n", "board", "seed", "steps", "min(s)", "median(s)", "max(s)");
+        for (Timing t : timings) {
+            System.out.printf(Locale.ROOT, "%-6d %-5d %10d %10.3f %10.3f %10.3f%n",
+                    t.board(), t.seed(), t.steps(), t.minSeconds(), t.medianSeconds(), t.maxSeconds());
+        }
+        writeReport(out, label, maxEpisodes, results, timings);
+        System.out.println("Report written to " + out);
+    }
+
+    // --- Measurement ---
+
+    private static Result train(int board, long seed, double target, int maxEpisodes) {
+        AIPlayer aiPlayer = AIPlayer.untrained(seed);
+        BoardConfig config = BoardConfig.square(board);
+        HeadlessGame game = new HeadlessGame(config, seed);
+        int[] recentScores = new int[SCORE_WINDOW];
+        long scoreSum = 0;
+        long steps = 0;
+        long episodes = 0;
+        boolean reached = false;
+
+        System.gc();
+        resetPeakHeap();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        while (episodes < maxEpisodes) {
+            int score = aiPlayer.trainEpisode(game, config.cellCount());
+            aiPlayer.decayEpsilon();
+            steps += game.getSteps();
+            int slot = (int) (episodes % SCORE_WINDOW);
+            scoreSum += score - recentScores[slot];
+            recentScores[slot] = score;
+            episodes++;
+            if (episodes >= SCORE_WINDOW && (double) scoreSum / SCORE_WINDOW >= target) {
+                reached = true;
+                break;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        return new Result(board, seed, target, reached, episodes, steps, seconds, peakHeapBytes() / 1e6,
+                allocated < 0 ? -1 : allocated / 1e6 / seconds, allocated < 0 ? -1 : (double) allocated / Math.max(1, steps));
+    }
+
+    /**
+     * Times the fixed workload on every board, repeat times each, one forked JVM per repetition.
+     * Repetitions are interleaved (all boards once, then all boards again, ...) so slow phases spread across boards.
+     */
+    private static List<Timing> time(int[] boards, long seed, long steps, int repeat) throws IOException {
+        int n = Math.max(1, repeat);
+        double[][] seconds = new double[boards.length][n];
+        for (int r = 0; r < n; r++) {
+            for (int b = 0; b < boards.length; b++) {
+                seconds[b][r] = timeInFork(boards[b], seed, steps);
+            }
+        }
+        List<Timing> timings = new ArrayList<>();
+        for (int b = 0; b < boards.length; b++) {
+            double[] sorted = seconds[b];
+            Arrays.sort(sorted);
+            double median = (n % 2 == 1) ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+            timings.add(new Timing(boards[b], seed, steps, n, sorted[0], median, sorted[n - 1]));
+        }
+        return timings;
+    }
+
+    /**
+     * Runs one timed repetition in a new JVM with this JVM's flags and classpath.
+     * @return Wall-clock seconds reported by the child.
+     */
+    private static double timeInFork(int board, long seed, long steps) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), MacroBenchmark.class.getName(),
+                "--time-board", String.valueOf(board), "--seed", String.valueOf(seed), "--timed-steps", String.valueOf(steps)));
+        Process child = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String output = new String(child.getInputStream().readAllBytes()).trim();
+        try {
+            if (child.waitFor() != 0) throw new IOException("Timing run for board " + board + " failed: " + output);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            child.destroy();
+            throw new IOException("Interrupted while timing board " + board, e);
+        }
+        return Double.parseDouble(output);
+    }
+
+    /**
+     * Trains from scratch for a fixed number of steps (whole episodes, so slightly more).
+     * The workload is deterministic for a given seed.
+     * @return Wall-clock seconds.
+     */
+    private static double trainSteps(int board, long seed, long steps) {
+        AIPlayer aiPlayer = AIPlayer.untrained(seed);
+        BoardConfig config = BoardConfig.square(board);
+        HeadlessGame game = new HeadlessGame(config, seed);
+        long done = 0;
+        long start = System.nanoTime();
+        while (done < steps) {
+            aiPlayer.trainEpisode(game, config.cellCount());
+            aiPlayer.decayEpsilon();
+            done += game.getSteps();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Sum of the heap pools' peaks since the last reset (an upper bound, since pools peak at different times).
+     */
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    /**
+     * @return Bytes allocated so far by the current thread, or -1 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // --- Report ---
+
+    private static void writeReport(Path out, String label, int maxEpisodes, List<Result> results, List<Timing> timings) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"label\": \"").append(label.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+        json.append("  \"timestamp\": \"").append(Instant.now()).append("\",\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"cores\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"scoreWindow\": ").append(SCORE_WINDOW).append(",\n");
+        json.append("  \"maxEpisodes\": ").append(maxEpisodes).append(",\n");
+        json.append("  \"runs\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("    ").append(results.get(i).toJson()).append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ],\n");
+        json.append("  \"timings\": [\n");
+        for (int i = 0; i < timings.size(); i++) {
+            json.append("    ").append(timings.get(i).toJson()).append(i < timings.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        Files.writeString(out, json);
+    }
+
+    // --- Comparison ---
+
+    private static final Pattern RUN = Pattern.compile("\\{\"board\": (\\d+), \"seed\": (-?\\d+), \"target\": ([\\d.]+), "
+            + "\"reached\": (true|false), \"episodes\": (\\d+), \"steps\": (\\d+), \"seconds\": ([\\d.]+), "
+            + "\"peakHeapMb\": ([\\d.]+), \"allocMbPerSec\": (-?[\\d.]+), \"allocBytesPerStep\": (-?[\\d.]+)\\}");
+
+    private static final Pattern TIMING = Pattern.compile("\\{\"timedBoard\": (\\d+), \"seed\": (-?\\d+), \"steps\": (\\d+), "
+            + "\"repeat\": (\\d+), \"minSeconds\": ([\\d.]+), \"medianSeconds\": ([\\d.]+), \"maxSeconds\": ([\\d.]+)\\}");
+
+    private static Map<Integer, Timing> readTimings(Path file) throws IOException {
+        Map<Integer, Timing> timings = new LinkedHashMap<>();
+        Matcher m = TIMING.matcher(Files.readString(file));
+        while (m.find()) {
+            Timing t = new Timing(Integer.parseInt(m.group(1)), Long.parseLong(m.group(2)), Long.parseLong(m.group(3)),
+                    Integer.parseInt(m.group(4)), Double.parseDouble(m.group(5)), Double.parseDouble(m.group(6)),
+                    Double.parseDouble(m.group(7)));
+            timings.put(t.board(), t);
+        }
+        return timings;
+    }
+
+    private static Map<String, Result> readReport(Path file) throws IOException {
+        Map<String, Result> runs = new LinkedHashMap<>(); // Keeps the report's order
+        Matcher m = RUN.matcher(Files.readString(file));
+        while (m.find()) {
+            Result r = new Result(Integer.parseInt(m.group(1)), Long.parseLong(m.group(2)), Double.parseDouble(m.group(3)),
+                    Boolean.parseBoolean(m.group(4)), Long.parseLong(m.group(5)), Long.parseLong(m.group(6)),
+                    Double.parseDouble(m.group(7)), Double.parseDouble(m.group(8)), Double.parseDouble(m.group(9)),
+                    Double.parseDouble(m.group(10)));
+            runs.put(r.board() + ":" + r.seed(), r);
+        }
+        return runs;
+    }
+
+    /**
+     * Compares two reports run by run (matched on board and seed), then timing by timing (matched on board).
+     * Time to target is shown but not gated; see the class comment for the timing gate.
+     * @return True if nothing regressed by more than the tolerance.
+     */
+    private static boolean compare(Path baselineFile, Path currentFile, double tolerance) throws IOException {
+        Map<String, Result> baseline = readReport(baselineFile);
+        Map<String, Result> current = readReport(currentFile);
+        boolean ok = true;
+        System.out.printf("%-10s %22s %22s %18s%n", "run", "episodes", "seconds", "allocMB/s");
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            Result before = entry.getValue();
+            Result after = current.get(entry.getKey());
+            if (after == null) {
+                System.out.printf("%-10s missing from %s%n", entry.getKey(), currentFile);
+                continue;
+            }
+            List<String> regressions = new ArrayList<>();
+            if (before.reached() && !after.reached()) regressions.add("target no longer reached");
+            if (isWorse(before.episodes(), after.episodes(), tolerance)) regressions.add("episodes");
+            if (isWorse(before.steps(), after.steps(), tolerance)) regressions.add("steps");
+            if (isWorse(before.peakHeapMb(), after.peakHeapMb(), tolerance)) regressions.add("peak heap");
+            if (isWorse(before.allocBytesPerStep(), after.allocBytesPerStep(), tolerance)) regressions.add("allocation");
+            System.out.printf(Locale.ROOT, "%-10s %10d -> %-9d %10.3f -> %-9.3f %8.1f -> %-7.1f %s%n", entry.getKey(),
+                    before.episodes(), after.episodes(), before.seconds(), after.seconds(),
+                    before.allocMbPerSec(), after.allocMbPerSec(),
+                    regressions.isEmpty() ? "ok" : "REGRESSION: " + String.join(", ", regressions));
+            ok &= regressions.isEmpty();
+        }
+
+        Map<Integer, Timing> baselineTimings = readTimings(baselineFile);
+        Map<Integer, Timing> currentTimings = readTimings(currentFile);
+        System.out.printf("%n%-10s %28s %28s%n", "timing", "median (min-max) before", "median (min-max) after");
+        for (Map.Entry<Integer, Timing> entry : baselineTimings.entrySet()) {
+            Timing before = entry.getValue();
+            Timing after = currentTimings.get(entry.getKey());
+            if (after == null || after.steps() != before.steps()) {
+                System.out.printf("%-10s no matching timing in %s%n", entry.getKey(), currentFile);
+                continue;
+            }
+            boolean slower = isWorse(before.medianSeconds(), after.medianSeconds(), tolerance);
+            double noise = Math.max(before.medianSeconds() - before.minSeconds(), after.medianSeconds() - after.minSeconds());
+            boolean beyondNoise = after.minSeconds() > before.medianSeconds() * (1 + tolerance) + NOISE_SPREADS * noise;
+            String verdict = !slower ? "ok" : beyondNoise ? "REGRESSION: time" : "warning: slower, within noise";
+            System.out.printf(Locale.ROOT, "%-10d %9.3f (%.3f-%.3f)        %9.3f (%.3f-%.3f)        %s%n", entry.getKey(),
+                    before.medianSeconds(), before.minSeconds(), before.maxSeconds(),
+                    after.medianSeconds(), after.minSeconds(), after.maxSeconds(), verdict);
+            ok &= !(slower && beyondNoise);
+        }
+        return ok;
+    }
+
+    private static boolean isWorse(double before, double after, double tolerance) {
+        return before > 0 && after > before * (1 + tolerance);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (name.equals("compare")) {
+                if (i + 2 >= args.length) throw new IllegalArgumentException("--compare needs two report files");
+                options.put(name, args[i + 1] + "," + args[i + 2]);
+                i += 2;
+            } else {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("--" + name + " needs a value");
+                options.put(name, args[++i]);
+            }
+        }
+        return options;
+    }
+}
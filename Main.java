@@ -1,9 +1,20 @@
 import javax.swing.*;
 
 public class Main {
+    /**
+     * Usage: java Main [width height [initialLength]]
+     * Board dimensions are in game units (cells); defaults to a 24x24 board.
+     * Run with -Dsnake.incrementalCheckpoints=true to save the Q-table as a snapshot plus an append-only update log.
+     */
     public static void main(String[] args) {
+        BoardConfig boardConfig = BoardConfig.DEFAULT;
+        if (args.length >= 2) {
+            int initialLength = args.length >= 3 ? Integer.parseInt(args[2]) : BoardConfig.DEFAULT.initialLength();
+            boardConfig = new BoardConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]), initialLength);
+        }
+        final BoardConfig config = boardConfig;
         SwingUtilities.invokeLater(() -> {
-            new GameFrame().setVisible(true);
+            new GameFrame(config).setVisible(true);
         });
     }
 }
@@ -0,0 +1,57 @@
+import java.awt.Point;
+
+/**
+ * Counts how many snake segments cover each cell of the board.
+ * A snake normally owns its grid; in the arena all snakes share one, so every occupancy
+ * or collision check covers all bodies on the board in constant time.
+ */
+public class OccupancyGrid {
+    private final int width;
+    private final int height;
+    // A count rather than a flag because heads can overlap another segment on the tick they collide
+    private final byte[] counts;
+
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.counts = new byte[width * height];
+    }
+
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @return True if the cell is on the board and covered by at least one segment.
+     */
+    public boolean isOccupied(int x, int y) {
+        return isInBounds(x, y) && counts[y * width + x] > 0;
+    }
+
+    /**
+     * @return The number of segments on the cell, or 0 if the cell is off the board.
+     */
+    public int count(int x, int y) {
+        return isInBounds(x, y) ? counts[y * width + x] : 0;
+    }
+
+    public void occupy(Point p) {
+        if (isInBounds(p.x, p.y)) {
+            counts[p.y * width + p.x]++;
+        }
+    }
+
+    public void release(Point p) {
+        if (isInBounds(p.x, p.y)) {
+            counts[p.y * width + p.x]--;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
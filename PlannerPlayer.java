@@ -0,0 +1,333 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A search-based alternative to the Q-learning AIPlayer.
+ *
+ * Each tick the planner:
+ * 1. Runs an A* search from the head to the food and takes the first move of the shortest path,
+ *    but only if a flood fill from the resulting cell still leaves room for the whole (grown) snake.
+ * 2. Otherwise chases its own tail, which keeps the snake alive while the board opens up.
+ * 3. Otherwise picks the move with the largest reachable area.
+ *
+ * Body segments are treated as obstacles only until they are vacated: the segment at index i
+ * leaves its cell after (length - i) moves, so paths may run through the tail as it moves away.
+ * Other snakes sharing the occupancy grid (arena mode) are treated as static obstacles.
+ *
+ * All search state lives in primitive buffers sized to the board and reused between ticks. Every tick
+ * is bounded both by a number of node expansions and by elapsed time (DEFAULT_TIME_BUDGET_NANOS keeps a
+ * tick under ~50 us even on large boards). A quarter of both budgets is held back for step 3, so there is
+ * always enough search left to compare the three moves. A flood fill that is cut short by the budget
+ * proves nothing, so step 1 keeps its food move in that case instead of rejecting it.
+ */
+public class PlannerPlayer implements SnakePolicy {
+
+    public static final int DEFAULT_EXPANSION_BUDGET = 2048;
+    public static final long DEFAULT_TIME_BUDGET_NANOS = 40_000;
+    private static final int TIME_CHECK_MASK = 63; // Read the clock once every 64 expansions
+
+    // Direction indices in clockwise order (U, R, D, L): a left turn is (d + 3) % 4, a right turn is (d + 1) % 4.
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final int[] TURN = {3, 0, 1}; // Relative action (left, straight, right) -> clockwise offset
+
+    private final int expansionBudget;
+    private final long timeBudgetNanos;
+    private int expansionsLeft;
+    private long deadline;          // System.nanoTime() at which the current stage must stop searching (unused if untimed)
+    private boolean cutShort;       // Set when the last search stopped because a budget ran out
+
+    // --- Reusable search buffers ---
+    private int width;
+    private int height;
+    private int[] queue;         // Search frontier of cell indices (y * width + x)
+    private int[] nextBucket;    // A* open set for the next f value
+    private int[] distance;      // Moves from the head to each visited cell
+    private int[] firstAction;   // Relative action of the first move on the path to each visited cell
+    private int[] visitStamp;    // visitStamp[c] == searchStamp marks c as visited by the current search
+    private int[] closedStamp;   // closedStamp[c] == searchStamp marks c as expanded by the current A* search
+    private int[] freeAt;        // Moves until an occupied cell is vacated
+    private int[] occupiedStamp; // occupiedStamp[c] == occupancyStamp marks c as occupied this tick
+    private int[] cellX;         // Column of each cell index, to keep divisions out of the search loops
+    private int[] cellY;         // Row of each cell index
+    private int searchStamp = 0;
+    private int occupancyStamp = 0;
+    private OccupancyGrid sharedOccupancy; // The snake's grid, which in the arena also holds the other snakes
+
+    public PlannerPlayer() {
+        this(DEFAULT_EXPANSION_BUDGET, DEFAULT_TIME_BUDGET_NANOS);
+    }
+
+    /**
+     * @param expansionBudget Maximum number of search node expansions per tick, across all searches.
+     * @param timeBudgetNanos Maximum search time per tick; Long.MAX_VALUE to bound by expansions only
+     *                        (which keeps decisions independent of machine speed).
+     */
+    public PlannerPlayer(int expansionBudget, long timeBudgetNanos) {
+        this.expansionBudget = expansionBudget;
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    @Override
+    public int chooseAction(Snake snake, Food food, int boardWidth, int boardHeight) {
+        Point head = snake.getHead();
+        if (head == null) {
+            return 1;
+        }
+        ensureCapacity(boardWidth, boardHeight);
+        long start = System.nanoTime();
+        int reserve = expansionBudget / 4;
+        expansionsLeft = expansionBudget - reserve;
+        deadline = start + (timeBudgetNanos - timeBudgetNanos / 4);
+
+        List<Point> body = snake.getBody();
+        int length = body.size();
+        int direction = directionIndex(snake.getDirection());
+        buildOccupancy(body, snake.isGrowing());
+        sharedOccupancy = snake.getOccupancy();
+
+        // 1. Shortest path to the food, if it leaves enough room afterwards
+        Point foodPos = food.getPosition();
+        if (foodPos != null) {
+            int action = searchFirstAction(head, direction, foodPos.y * width + foodPos.x);
+            if (action >= 0) {
+                int area = reachableArea(head, direction, action, length + 1);
+                if (area > length || cutShort) { // Not shown to be a trap
+                    return action;
+                }
+            }
+        }
+
+        // 2. Tail chasing
+        if (length > 1) {
+            Point tail = body.get(length - 1);
+            if (tail.x >= 0 && tail.x < width && tail.y >= 0 && tail.y < height) {
+                int action = searchFirstAction(head, direction, tail.y * width + tail.x);
+                if (action >= 0) {
+                    return action;
+                }
+            }
+        }
+
+        // 3. Most room, from the reserved budget split across the three moves
+        deadline = start + timeBudgetNanos;
+        int bestAction = 1;
+        int bestArea = -1;
+        for (int action = 0; action < 3; action++) {
+            expansionsLeft = reserve / 3;
+            int area = reachableArea(head, direction, action, length + 1);
+            if (area > bestArea) {
+                bestArea = area;
+                bestAction = action;
+            }
+        }
+        return bestAction;
+    }
+
+    // --- Search ---
+
+    /**
+     * A* search from the head to the target cell with the Manhattan distance as heuristic.
+     * Moves on a grid change f = g + h by either 0 or 2, so the open set is just two stacks:
+     * the bucket currently being expanded and the one for f + 2.
+     * @return The relative action of the first move on a shortest path, or -1 if the target is unreachable
+     *         (or the expansion budget ran out first).
+     */
+    private int searchFirstAction(Point head, int direction, int target) {
+        int stamp = nextSearchStamp();
+        int targetX = cellX[target];
+        int targetY = cellY[target];
+        int bucketF = Math.abs(targetX - head.x) + Math.abs(targetY - head.y);
+        int currentSize = 0;
+        int nextSize = 0;
+
+        for (int action = 0; action < 3; action++) {
+            int d = (direction + TURN[action]) & 3;
+            int x = head.x + DX[d];
+            int y = head.y + DY[d];
+            if (x < 0 || x >= width || y < 0 || y >= height) continue;
+            int cell = y * width + x;
+            if (isBlocked(cell, 1)) continue;
+            if (cell == target) return action;
+            visitStamp[cell] = stamp;
+            distance[cell] = 1;
+            firstAction[cell] = action;
+            if (1 + Math.abs(targetX - x) + Math.abs(targetY - y) == bucketF) {
+                queue[currentSize++] = cell;
+            } else {
+                nextBucket[nextSize++] = cell;
+            }
+        }
+
+        int[] current = queue;
+        int[] next = nextBucket;
+        while (expansionsLeft > 0) {
+            if (currentSize == 0) {
+                if (nextSize == 0) break;
+                int[] swap = current;
+                current = next;
+                next = swap;
+                currentSize = nextSize;
+                nextSize = 0;
+                bucketF += 2;
+            }
+            int cell = current[--currentSize];
+            if (closedStamp[cell] == stamp) continue;
+            int cx = cellX[cell];
+            int cy = cellY[cell];
+            int g = distance[cell];
+            if (g + Math.abs(targetX - cx) + Math.abs(targetY - cy) != bucketF) continue; // Stale entry
+            closedStamp[cell] = stamp;
+            if (!spendExpansion()) break;
+
+            int ng = g + 1;
+            int action = firstAction[cell];
+            for (int d = 0; d < 4; d++) {
+                int x = cx + DX[d];
+                int y = cy + DY[d];
+                if (x < 0 || x >= width || y < 0 || y >= height) continue;
+                int neighbour = y * width + x;
+                if (closedStamp[neighbour] == stamp || isBlocked(neighbour, ng)) continue;
+                if (visitStamp[neighbour] == stamp && distance[neighbour] <= ng) continue;
+                if (neighbour == target) return action;
+                visitStamp[neighbour] = stamp;
+                distance[neighbour] = ng;
+                firstAction[neighbour] = action;
+                if (ng + Math.abs(targetX - x) + Math.abs(targetY - y) == bucketF) {
+                    current[currentSize++] = neighbour;
+                } else {
+                    next[nextSize++] = neighbour;
+                }
+            }
+        }
+        cutShort = expansionsLeft <= 0;
+        return -1;
+    }
+
+    /**
+     * Flood fill from the cell reached by the given action, stopping once {@code limit} cells have been counted.
+     * Sets cutShort if the fill stopped because the budget ran out, in which case the count is only a lower bound.
+     * @return The number of reachable cells (at most {@code limit}), or 0 if the move itself is fatal.
+     */
+    private int reachableArea(Point head, int direction, int action, int limit) {
+        int d0 = (direction + TURN[action]) & 3;
+        int startX = head.x + DX[d0];
+        int startY = head.y + DY[d0];
+        cutShort = false;
+        if (startX < 0 || startX >= width || startY < 0 || startY >= height) return 0;
+        int start = startY * width + startX;
+        if (isBlocked(start, 1)) return 0;
+
+        int stamp = nextSearchStamp();
+        visitStamp[start] = stamp;
+        distance[start] = 1;
+        queue[0] = start;
+        int tail = 1;
+        int next = 0;
+        while (next < tail && tail < limit) {
+            if (!spendExpansion()) {
+                cutShort = true;
+                break;
+            }
+            int cell = queue[next++];
+            int cx = cellX[cell];
+            int cy = cellY[cell];
+            int dist = distance[cell] + 1;
+            for (int d = 0; d < 4; d++) {
+                int x = cx + DX[d];
+                int y = cy + DY[d];
+                if (x < 0 || x >= width || y < 0 || y >= height) continue;
+                int neighbour = y * width + x;
+                if (visitStamp[neighbour] == stamp || isBlocked(neighbour, dist)) continue;
+                visitStamp[neighbour] = stamp;
+                distance[neighbour] = dist;
+                queue[tail++] = neighbour;
+            }
+        }
+        return Math.min(tail, limit);
+    }
+
+    /**
+     * Uses up one expansion.
+     * @return False if the expansion or time budget is exhausted.
+     */
+    private boolean spendExpansion() {
+        if (expansionsLeft <= 0) return false;
+        if ((--expansionsLeft & TIME_CHECK_MASK) == 0 && timeBudgetNanos != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            expansionsLeft = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isBlocked(int cell, int arrivalTime) {
+        if (occupiedStamp[cell] == occupancyStamp) {
+            return freeAt[cell] > arrivalTime; // Own body, vacated over time
+        }
+        return sharedOccupancy.isOccupied(cellX[cell], cellY[cell]); // Other snakes, treated as static
+    }
+
+    // --- Buffer Management ---
+
+    private void buildOccupancy(List<Point> body, boolean growing) {
+        if (++occupancyStamp == Integer.MAX_VALUE) {
+            Arrays.fill(occupiedStamp, 0);
+            occupancyStamp = 1;
+        }
+        int length = body.size();
+        int extra = growing ? 1 : 0; // A growing snake keeps its tail for one more move
+        int i = 0;
+        for (Point segment : body) {
+            if (segment.x >= 0 && segment.x < width && segment.y >= 0 && segment.y < height) {
+                int cell = segment.y * width + segment.x;
+                occupiedStamp[cell] = occupancyStamp;
+                freeAt[cell] = length - i + extra;
+            }
+            i++;
+        }
+    }
+
+    private int nextSearchStamp() {
+        if (++searchStamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchStamp = 1;
+        }
+        return searchStamp;
+    }
+
+    private void ensureCapacity(int boardWidth, int boardHeight) {
+        if (boardWidth == width && boardHeight == height) {
+            return;
+        }
+        width = boardWidth;
+        height = boardHeight;
+        int cells = boardWidth * boardHeight;
+        queue = new int[cells];
+        nextBucket = new int[cells];
+        distance = new int[cells];
+        firstAction = new int[cells];
+        visitStamp = new int[cells];
+        closedStamp = new int[cells];
+        freeAt = new int[cells];
+        occupiedStamp = new int[cells];
+        cellX = new int[cells];
+        cellY = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            cellX[cell] = cell % boardWidth;
+            cellY[cell] = cell / boardWidth;
+        }
+        searchStamp = 0;
+        occupancyStamp = 0;
+    }
+
+    private static int directionIndex(char direction) {
+        switch (direction) {
+            case 'U': return 0;
+            case 'R': return 1;
+            case 'D': return 2;
+            default:  return 3; // 'L'
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+/**
+ * Headless side-by-side benchmark of the Q-learning player (greedy, using the saved q_table.dat),
+ * its frozen export and the search-based planner: per-tick decision latency and score per board size.
+ * The planner is bounded by search expansions only, not by time, so its scores don't depend on machine load.
+ * A good player on a large board can go on eating for millions of steps, so every game (warm-up included)
+ * is cut off after MAX_STEPS_PER_GAME steps and scored as it stands.
+ *
+ * Usage: java PolicyBenchmark [gamesPerBoard] [boardSize...]
+ * e.g. "java PolicyBenchmark 2 1000" stress-tests all three policies on a 1000x1000 board.
+ */
+public class PolicyBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int WARMUP_GAMES = 20;
+    private static final int MAX_SAMPLES = 2_000_000;
+    private static final long MAX_STEPS_PER_GAME = 100_000;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{24, 100};
+
+        AIPlayer qPlayer = new AIPlayer();
+        System.out.printf("%-8s %-10s %8s %10s %10s %10s %10s%n",
+                "board", "policy", "games", "avgScore", "mean(us)", "p99(us)", "max(us)");
+        for (int size : sizes) {
+            run("q-table", qPlayer, size, games);
+            run("frozen", qPlayer.freeze(), size, games);
+            run("planner", new PlannerPlayer(PlannerPlayer.DEFAULT_EXPANSION_BUDGET, Long.MAX_VALUE), size, games);
+        }
+    }
+
+    private static void run(String name, SnakePolicy policy, int size, int games) {
+        HeadlessGame game = new HeadlessGame(BoardConfig.square(size), SEED);
+        long stallLimit = 4L * size * size;
+        for (int i = 0; i < Math.min(WARMUP_GAMES, games); i++) { // Large boards make for long games
+            game.reset();
+            while (!isOver(game, stallLimit)) {
+                game.step(policy.chooseAction(game.getSnake(), game.getFood(), size, size));
+            }
+        }
+
+        long[] samples = new long[MAX_SAMPLES];
+        int sampleCount = 0;
+        long totalScore = 0;
+        for (int i = 0; i < games; i++) {
+            game.reset();
+            while (!isOver(game, stallLimit)) {
+                long start = System.nanoTime();
+                int action = policy.chooseAction(game.getSnake(), game.getFood(), size, size);
+                long elapsed = System.nanoTime() - start;
+                if (sampleCount < MAX_SAMPLES) samples[sampleCount++] = elapsed;
+                game.step(action);
+            }
+            totalScore += game.getScore();
+        }
+
+        Arrays.sort(samples, 0, sampleCount);
+        double mean = Arrays.stream(samples, 0, sampleCount).average().orElse(0.0);
+        long p99 = sampleCount == 0 ? 0 : samples[(int) Math.min(sampleCount - 1, (long) (sampleCount * 0.99))];
+        long max = sampleCount == 0 ? 0 : samples[sampleCount - 1];
+        System.out.printf("%-8s %-10s %8d %10.2f %10.2f %10.2f %10.2f%n",
+                size + "x" + size, name, games, (double) totalScore / games,
+                mean / 1000.0, p99 / 1000.0, max / 1000.0);
+    }
+
+    private static boolean isOver(HeadlessGame game, long stallLimit) {
+        return !game.isRunning() || game.getStepsSinceFood() >= stallLimit || game.getSteps() >= MAX_STEPS_PER_GAME;
+    }
+}
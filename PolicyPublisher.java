@@ -0,0 +1,31 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versioned publication of greedy policy snapshots from a trainer to any number of viewers.
+ *
+ * The trainer compiles its Q-table into an immutable FrozenPolicy on its own thread and swaps it in
+ * with a single reference write. Viewers only ever read the current reference, so they never block
+ * the trainer and never observe a Q-value triple mid-update.
+ */
+public class PolicyPublisher {
+
+    /**
+     * An immutable published policy.
+     * - version: Increases by one with every publication, starting at 1.
+     * - gamesTrained: Number of training games the policy had seen when it was published.
+     */
+    public record Snapshot(long version, long gamesTrained, FrozenPolicy policy) {}
+
+    private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+
+    public void publish(FrozenPolicy policy, long gamesTrained) {
+        latest.updateAndGet(previous -> new Snapshot(previous == null ? 1 : previous.version() + 1, gamesTrained, policy));
+    }
+
+    /**
+     * @return The most recently published snapshot, or null if nothing has been published yet.
+     */
+    public Snapshot latest() {
+        return latest.get();
+    }
+}
@@ -0,0 +1,237 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Incremental Q-table persistence: a base snapshot plus an append-only log of updated entries.
+ *
+ * Every checkpoint appends one batch holding only the (state, action, value) entries that changed since
+ * the previous checkpoint, so its cost scales with the amount of change rather than with the table size.
+ * Once the log has grown past COMPACTION_FACTOR times the table, the next checkpoint compacts instead:
+ * it writes a fresh base snapshot and starts an empty log. Loading reads the base and replays the log.
+ *
+ * Both files carry a generation number. Compaction bumps it and writes the base first, so a crash before
+ * the log is reset leaves an old-generation log that is ignored rather than replayed over newer values.
+ * Each log batch ends with a CRC32, so a batch torn by a crash is dropped along with anything after it.
+ *
+ * Base file: magic, version, generation, entry count, then (encoded state, 3 Q-values) per entry.
+ * Log file:  magic, version, generation, then batches of (count, (encoded state, action, value) * count, CRC32).
+ */
+public class QUpdateLog {
+
+    private static final int BASE_MAGIC = 0x514E4253; // "QNBS"
+    private static final int LOG_MAGIC = 0x514E4C47;  // "QNLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+    private static final int LOG_ENTRY_BYTES = 4 + 1 + 8;
+    private static final int BASE_ENTRY_BYTES = 4 + 3 * 8;
+    private static final int COMPACTION_FACTOR = 2;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path baseFile;
+    private final Path logFile;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES); // Reused by every checkpoint
+
+    // --- Dirty Tracking (indexed by encoded state * 3 + action) ---
+    private final boolean[] dirty = new boolean[State.STATE_COUNT * 3];
+    private final int[] dirtyEntries = new int[State.STATE_COUNT * 3];
+    private int dirtyCount = 0;
+
+    private long generation = 0;
+    private long loggedEntries = 0;       // Entries in the current log, to decide when to compact
+    private boolean compactionPending = true; // Until a base snapshot of this generation exists
+
+    public QUpdateLog(Path baseFile, Path logFile) {
+        this.baseFile = baseFile;
+        this.logFile = logFile;
+    }
+
+    public void markDirty(State state, int action) {
+        int entry = state.encode() * 3 + action;
+        if (!dirty[entry]) {
+            dirty[entry] = true;
+            dirtyEntries[dirtyCount++] = entry;
+        }
+    }
+
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    // --- Checkpoint ---
+
+    /**
+     * Persists the changes since the last checkpoint, compacting into a new base snapshot when the log is large.
+     * @param qTable The live Q-table; only read.
+     */
+    public void checkpoint(Map<State, double[]> qTable) throws IOException {
+        if (compactionPending || loggedEntries + dirtyCount > (long) COMPACTION_FACTOR * 3 * Math.max(1, qTable.size())) {
+            compact(qTable);
+        } else if (dirtyCount > 0) {
+            appendBatch(qTable);
+        }
+    }
+
+    private void appendBatch(Map<State, double[]> qTable) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            CRC32 crc = new CRC32();
+            buffer.clear();
+            buffer.putInt(dirtyCount);
+            for (int i = 0; i < dirtyCount; i++) {
+                if (buffer.remaining() < LOG_ENTRY_BYTES) {
+                    flush(channel, crc);
+                }
+                int entry = dirtyEntries[i];
+                double[] qValues = qTable.get(State.decode(entry / 3));
+                buffer.putInt(entry / 3);
+                buffer.put((byte) (entry % 3));
+                buffer.putDouble(qValues == null ? 0.0 : qValues[entry % 3]);
+            }
+            flush(channel, crc);
+            buffer.putInt((int) crc.getValue());
+            flush(channel, null);
+            channel.force(false);
+        }
+        loggedEntries += dirtyCount;
+        clearDirty();
+    }
+
+    /**
+     * Writes the whole table as a new base snapshot of the next generation, then starts an empty log for it.
+     */
+    public void compact(Map<State, double[]> qTable) throws IOException {
+        long nextGeneration = generation + 1;
+        Path tempFile = baseFile.resolveSibling(baseFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            buffer.putInt(BASE_MAGIC).putInt(VERSION).putLong(nextGeneration).putInt(qTable.size());
+            for (Map.Entry<State, double[]> entry : qTable.entrySet()) {
+                if (buffer.remaining() < BASE_ENTRY_BYTES) {
+                    flush(channel, null);
+                }
+                double[] qValues = entry.getValue();
+                buffer.putInt(entry.getKey().encode());
+                buffer.putDouble(qValues[0]).putDouble(qValues[1]).putDouble(qValues[2]);
+            }
+            flush(channel, null);
+            channel.force(false);
+        }
+        Files.move(tempFile, baseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            buffer.putInt(LOG_MAGIC).putInt(VERSION).putLong(nextGeneration);
+            flush(channel, null);
+            channel.force(false);
+        }
+        generation = nextGeneration;
+        loggedEntries = 0;
+        compactionPending = false;
+        clearDirty();
+    }
+
+    private void flush(FileChannel channel, CRC32 crc) throws IOException {
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyEntries[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    // --- Load ---
+
+    public boolean exists() {
+        return Files.exists(baseFile);
+    }
+
+    /**
+     * Reads the base snapshot and replays the log on top of it.
+     * @return The restored Q-table.
+     */
+    public Map<State, double[]> load() throws IOException {
+        Map<State, double[]> qTable = new HashMap<>();
+        ByteBuffer base = ByteBuffer.wrap(Files.readAllBytes(baseFile));
+        if (base.remaining() < HEADER_BYTES + 4 || base.getInt() != BASE_MAGIC || base.getInt() != VERSION) {
+            throw new IOException(baseFile + " is not a Q-table snapshot");
+        }
+        long baseGeneration = base.getLong();
+        int count = base.getInt();
+        if (base.remaining() < (long) count * BASE_ENTRY_BYTES) {
+            throw new EOFException(baseFile + " is truncated");
+        }
+        for (int i = 0; i < count; i++) {
+            State state = decodeChecked(base.getInt());
+            qTable.put(state, new double[]{base.getDouble(), base.getDouble(), base.getDouble()});
+        }
+        generation = baseGeneration;
+        compactionPending = false;
+        loggedEntries = replayLog(qTable, baseGeneration);
+        clearDirty();
+        return qTable;
+    }
+
+    private long replayLog(Map<State, double[]> qTable, long baseGeneration) throws IOException {
+        if (!Files.exists(logFile)) {
+            compactionPending = true; // Recreate the log on the next checkpoint
+            return 0;
+        }
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logFile));
+        if (log.remaining() < HEADER_BYTES || log.getInt() != LOG_MAGIC || log.getInt() != VERSION
+                || log.getLong() != baseGeneration) {
+            compactionPending = true; // Stale or foreign log: start a fresh one
+            return 0;
+        }
+        long replayed = 0;
+        while (log.remaining() >= 4) {
+            int batchStart = log.position();
+            int count = log.getInt();
+            if (count < 0 || log.remaining() < (long) count * LOG_ENTRY_BYTES + 4) {
+                break; // Torn batch at the tail
+            }
+            CRC32 crc = new CRC32();
+            crc.update(log.array(), batchStart, 4 + count * LOG_ENTRY_BYTES);
+            if ((int) crc.getValue() != log.getInt(batchStart + 4 + count * LOG_ENTRY_BYTES)) {
+                break; // Corrupt batch: ignore it and everything after it
+            }
+            for (int i = 0; i < count; i++) {
+                State state = decodeChecked(log.getInt());
+                int action = log.get();
+                double value = log.getDouble();
+                qTable.computeIfAbsent(state, s -> new double[3])[action] = value;
+            }
+            log.getInt(); // CRC, already checked
+            replayed += count;
+        }
+        if (log.hasRemaining()) {
+            compactionPending = true; // Don't append after a damaged tail
+        }
+        return replayed;
+    }
+
+    private static State decodeChecked(int encoded) throws IOException {
+        if (encoded < 0 || encoded >= State.STATE_COUNT) {
+            throw new IOException("Invalid encoded state " + encoded);
+        }
+        return State.decode(encoded);
+    }
+}
@@ -1,9 +1,10 @@
 import java.awt.Point;
-import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 
 public class Snake {
-    private List<Point> body;
+    // Head is the first element. A linked list gives O(1) head insertion and tail removal on every move.
+    private LinkedList<Point> body;
     private char direction; // 'U', 'D', 'L', 'R'
     private boolean growing = false; // Flag to indicate snake should grow
     private int initialSegmentsCount; // To store the initial number of segments for reset
@@ -12,17 +13,29 @@ public class Snake {
     private int boardWidth;
     private int boardHeight;
 
+    // Segment counts per cell, so occupancy checks don't scan the body. Private to this snake unless shared.
+    private OccupancyGrid occupancy;
+
     public Snake(int startX, int startY, int initialSegments, char initialDirection, int boardWidth, int boardHeight) {
-        this.boardWidth = boardWidth;
-        this.boardHeight = boardHeight;
+        this(startX, startY, initialSegments, initialDirection, new OccupancyGrid(boardWidth, boardHeight));
+    }
+
+    /**
+     * Creates a snake that registers its segments in a grid shared with other snakes.
+     * Collision and occupancy checks then also cover the other snakes' bodies.
+     */
+    public Snake(int startX, int startY, int initialSegments, char initialDirection, OccupancyGrid occupancy) {
+        this.boardWidth = occupancy.getWidth();
+        this.boardHeight = occupancy.getHeight();
         this.initialSegmentsCount = initialSegments;
-        this.body = new ArrayList<>();
+        this.body = new LinkedList<>();
+        this.occupancy = occupancy;
         // Initialize is separated for clarity and reuse by reset
         initializeSnake(startX, startY, initialSegments, initialDirection);
     }
 
     private void initializeSnake(int startX, int startY, int initialSegments, char initialDirection) {
-        this.body.clear();
+        clear();
         this.direction = initialDirection;
         this.growing = false;
 
@@ -47,7 +60,9 @@ public class Snake {
                     segmentX -= i;
                     break;
             }
-            this.body.add(new Point(segmentX, segmentY));
+            Point segment = new Point(segmentX, segmentY);
+            this.body.add(segment);
+            occupancy.occupy(segment);
         }
     }
 
@@ -55,7 +70,7 @@ public class Snake {
         if (body.isEmpty()) {
             return; // Should not happen with proper game logic
         }
-        Point currentHead = body.get(0);
+        Point currentHead = body.getFirst();
         Point newHead = new Point(currentHead); // Create a mutable copy
 
         switch (direction) {
@@ -64,12 +79,13 @@ public class Snake {
             case 'L': newHead.x--; break;
             case 'R': newHead.x++; break;
         }
-        body.add(0, newHead); // Add new head
+        body.addFirst(newHead); // Add new head
+        occupancy.occupy(newHead);
 
         if (growing) {
             growing = false; // Reset flag, snake has grown
         } else {
-            body.remove(body.size() - 1); // Remove tail if not growing
+            occupancy.release(body.removeLast()); // Remove tail if not growing
         }
     }
 
@@ -83,24 +99,45 @@ public class Snake {
         return head.x < 0 || head.x >= boardWidth || head.y < 0 || head.y >= boardHeight;
     }
 
+    /**
+     * Checks whether the head overlaps another segment. With a shared grid this includes other snakes' bodies and heads.
+     */
     public boolean checkCollisionWithSelf() {
         Point head = getHead();
-        if (head == null || body.size() <= 1) { // No collision if no body or just a head
+        if (head == null) {
             return false;
         }
-        for (int i = 1; i < body.size(); i++) {
-            if (head.equals(body.get(i))) {
-                return true;
-            }
+        // The head's own cell counts once; any more means it overlaps another segment
+        return occupancy.count(head.x, head.y) > 1;
+    }
+
+    /**
+     * Checks whether any segment of the snake is on the given cell, in constant time.
+     * @return True if the cell is on the board and covered by the snake.
+     */
+    public boolean isOccupied(int x, int y) {
+        return occupancy.isOccupied(x, y);
+    }
+
+    public OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Removes the whole body from the board, e.g. when a snake dies in the arena.
+     */
+    public void clear() {
+        for (Point segment : body) { // Release only the cells the body covered
+            occupancy.release(segment);
         }
-        return false;
+        body.clear();
     }
 
     public Point getHead() {
         if (body.isEmpty()) {
             return null;
         }
-        return body.get(0);
+        return body.getFirst();
     }
 
     public List<Point> getBody() {
@@ -109,10 +146,7 @@ public class Snake {
 
     public void setDirection(char newDirection) {
         // Prevent immediate reversal
-        if ((direction == 'U' && newDirection == 'D') ||
-            (direction == 'D' && newDirection == 'U') ||
-            (direction == 'L' && newDirection == 'R') ||
-            (direction == 'R' && newDirection == 'L')) {
+        if (isOpposite(direction, newDirection)) {
             return;
         }
         this.direction = newDirection;
@@ -122,6 +156,40 @@ public class Snake {
         return direction;
     }
 
+    public static boolean isOpposite(char a, char b) {
+        return (a == 'U' && b == 'D') || (a == 'D' && b == 'U') ||
+               (a == 'L' && b == 'R') || (a == 'R' && b == 'L');
+    }
+
+    public boolean isGrowing() {
+        return growing;
+    }
+
+    /**
+     * Maps a relative AI action onto an absolute direction.
+     * @param currentDirection The snake's current absolute direction ('U', 'D', 'L', 'R').
+     * @param relativeAction 0 for turning left, 1 for straight, 2 for turning right.
+     * @return The absolute direction the action leads to.
+     */
+    public static char relativeToAbsolute(char currentDirection, int relativeAction) {
+        if (relativeAction == 0) { // Relative Left
+            switch (currentDirection) {
+                case 'U': return 'L';
+                case 'D': return 'R';
+                case 'L': return 'D';
+                case 'R': return 'U';
+            }
+        } else if (relativeAction == 2) { // Relative Right
+            switch (currentDirection) {
+                case 'U': return 'R';
+                case 'D': return 'L';
+                case 'L': return 'U';
+                case 'R': return 'D';
+            }
+        }
+        return currentDirection; // Straight
+    }
+
     public void reset(int startX, int startY, char initialDirection) {
         // Uses the stored initialSegmentsCount
         initializeSnake(startX, startY, this.initialSegmentsCount, initialDirection);
@@ -0,0 +1,17 @@
+/**
+ * A decision policy that drives a snake one tick at a time.
+ * Actions use the same relative encoding as the Q-learning player:
+ * 0 (turn left), 1 (go straight), 2 (turn right).
+ */
+public interface SnakePolicy {
+
+    /**
+     * Chooses the next relative action for the given snake.
+     * @param snake The snake to steer.
+     * @param food The food the snake is after.
+     * @param boardWidth The width of the game board in game units.
+     * @param boardHeight The height of the game board in game units.
+     * @return The chosen action (0, 1, or 2).
+     */
+    int chooseAction(Snake snake, Food food, int boardWidth, int boardHeight);
+}
@@ -1,3 +1,4 @@
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
@@ -18,12 +19,53 @@ public record State(
     boolean isObstacleStraightRelative,
     boolean isObstacleRightRelative,
     char currentDirection
-) {
+) implements Serializable { // Serialized as the key type of the saved Q-table
     // Records automatically provide:
     // 1. A constructor with parameters for all fields (canonical constructor).
     // 2. Getter-like methods for all fields (e.g., foodDeltaXSign()).
     // 3. Implementations of equals(), hashCode(), and toString().
     // 4. Fields are final by default, ensuring immutability.
 
-    // No additional methods are needed here for basic state representation.
+    /**
+     * Number of distinct states: 3 x 3 food sign combinations, 2^3 obstacle flags, 4 directions.
+     */
+    public static final int STATE_COUNT = 3 * 3 * 8 * 4;
+
+    /**
+     * Packs this state into a dense index in [0, STATE_COUNT), e.g. for array-backed lookup tables.
+     */
+    public int encode() {
+        return encode(foodDeltaXSign, foodDeltaYSign, isObstacleLeftRelative, isObstacleStraightRelative,
+                isObstacleRightRelative, currentDirection);
+    }
+
+    /**
+     * Packs state components without creating a State, for allocation-free inference.
+     */
+    public static int encode(int foodDeltaXSign, int foodDeltaYSign, boolean obstacleLeft, boolean obstacleStraight,
+                             boolean obstacleRight, char direction) {
+        int index = (foodDeltaXSign + 1) * 3 + (foodDeltaYSign + 1);
+        index = index * 8 + (obstacleLeft ? 4 : 0) + (obstacleStraight ? 2 : 0) + (obstacleRight ? 1 : 0);
+        return index * 4 + directionIndex(direction);
+    }
+
+    /**
+     * Inverse of encode().
+     */
+    public static State decode(int index) {
+        char direction = "UDLR".charAt(index % 4);
+        int obstacles = (index / 4) % 8;
+        int foodSigns = index / 32;
+        return new State(foodSigns / 3 - 1, foodSigns % 3 - 1,
+                (obstacles & 4) != 0, (obstacles & 2) != 0, (obstacles & 1) != 0, direction);
+    }
+
+    private static int directionIndex(char direction) {
+        switch (direction) {
+            case 'U': return 0;
+            case 'D': return 1;
+            case 'L': return 2;
+            default:  return 3; // 'R'
+        }
+    }
 }